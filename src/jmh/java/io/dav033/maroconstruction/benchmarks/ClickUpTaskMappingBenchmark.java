@@ -0,0 +1,92 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.config.ClickUpConfig;
+import io.dav033.maroconstruction.dto.LeadPayloadDto;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
+import io.dav033.maroconstruction.mappers.ContactInfoFormatter;
+import io.dav033.maroconstruction.mappers.ContactsMapper;
+import io.dav033.maroconstruction.mappers.CustomFieldsBuilder;
+import io.dav033.maroconstruction.mappers.LeadToClickUpTaskMapper;
+import io.dav033.maroconstruction.services.ContactsService;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de la petición a ClickUp de un lead: CustomFieldsBuilder.build y
+ * LeadToClickUpTaskMapper.toClickUpTask (descripción, tags, fechas y custom fields). El contacto se
+ * lee de un repositorio en memoria a través del ContactsService real.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClickUpTaskMappingBenchmark {
+
+    private CustomFieldsBuilder customFieldsBuilder;
+    private LeadToClickUpTaskMapper taskMapper;
+    private LeadPayloadDto payload;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ContactsService contactsService = new ContactsService(
+                InMemoryRepositories.contacts(Fixtures.contact()), Mappers.getMapper(ContactsMapper.class), null);
+        customFieldsBuilder = new CustomFieldsBuilder(Fixtures.routing(), contactsService);
+
+        // Fuera de Spring: se rellenan a mano los @Autowired de la clase abstracta
+        taskMapper = Mappers.getMapper(LeadToClickUpTaskMapper.class);
+        inject("clickUpConfig", new ClickUpConfig());
+        inject("contactInfoFormatter", new ContactInfoFormatter(contactsService));
+        inject("customFieldsBuilder", customFieldsBuilder);
+
+        payload = LeadPayloadDto.builder()
+                .leadNumber("042-0126")
+                .name("042-0126-123 Ocean Dr")
+                .location("123 Ocean Dr, Miami, FL")
+                .startDate("2026-01-15")
+                .leadType("CONSTRUCTION")
+                .contactId(1L)
+                .notes(Fixtures.notes(3))
+                .build();
+    }
+
+    /** Rellena el campo en la clase abstracta y, si MapStruct generó uno igual por {@code uses}, también en la Impl. */
+    private void inject(String field, Object value) throws ReflectiveOperationException {
+        boolean found = false;
+        for (Class<?> c = taskMapper.getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (var f : c.getDeclaredFields()) {
+                if (f.getName().equals(field)) {
+                    f.setAccessible(true);
+                    f.set(taskMapper, value);
+                    found = true;
+                }
+            }
+        }
+        if (!found) {
+            throw new NoSuchFieldException(field);
+        }
+    }
+
+    @Benchmark
+    public List<ClickUpTaskRequest.CustomField> customFields() {
+        return customFieldsBuilder.build(payload);
+    }
+
+    @Benchmark
+    public ClickUpTaskRequest toClickUpTask() {
+        return taskMapper.toClickUpTask(payload);
+    }
+}
@@ -0,0 +1,95 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.config.ClickUpRoutingProperties;
+import io.dav033.maroconstruction.config.ClickUpRoutingService;
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.ProjectTypeEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Datos sintéticos compartidos por los benchmarks. */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    /**
+     * {@code count} lead numbers distintos con formato NNN-MMYY, repartidos en periodos anteriores a 2020
+     * para que nunca coincidan con los que genera el contador para el mes actual.
+     */
+    static List<String> leadNumbers(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int period = i / 1000;
+            int month = period % 12 + 1;
+            int year = 10 + period / 12;
+            numbers.add(String.format("%03d-%02d%02d", i % 1000, month, year));
+        }
+        return numbers;
+    }
+
+    static List<String> notes(int count) {
+        List<String> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add("Nota " + i + ": llamar al cliente para confirmar medidas y presupuesto del \"proyecto\"");
+        }
+        return notes;
+    }
+
+    static ContactsEntity contact() {
+        ContactsEntity contact = new ContactsEntity();
+        contact.setId(1L);
+        contact.setName("María López");
+        contact.setOccupation("Arquitecta");
+        contact.setEmail("maria.lopez@example.com");
+        contact.setPhone("(305) 555-0142");
+        contact.setAddress("123 Ocean Dr, Miami, FL");
+        contact.setNotes(notes(3));
+        return contact;
+    }
+
+    static LeadsEntity lead(ContactsEntity contact) {
+        ProjectTypeEntity type = new ProjectTypeEntity();
+        type.setId(2L);
+        type.setName("Remodelación");
+        type.setColor("#3366ff");
+
+        LeadsEntity lead = new LeadsEntity();
+        lead.setId(10L);
+        lead.setLeadNumber("042-0126");
+        lead.setName("042-0126-123 Ocean Dr");
+        lead.setStartDate(LocalDate.of(2026, 1, 15));
+        lead.setLocation("123 Ocean Dr, Miami, FL");
+        lead.setStatus(LeadStatus.NOT_EXECUTED);
+        lead.setLeadType(LeadType.CONSTRUCTION);
+        lead.setContact(contact);
+        lead.setProjectType(type);
+        lead.setNotes(notes(3));
+        return lead;
+    }
+
+    /** Tabla de rutas con todos los field ids fijados, así nunca se llama a ClickUp para descubrirlos. */
+    static ClickUpRoutingService routing() {
+        ClickUpRoutingProperties.Fields fields = new ClickUpRoutingProperties.Fields();
+        fields.setLeadNumberId("cf-lead-number");
+        fields.setContactNameId("cf-contact-name");
+        fields.setCustomerNameId("cf-customer-name");
+        fields.setEmailId("cf-email");
+        fields.setPhoneId("cf-phone");
+        fields.setPhoneTextId("cf-phone-text");
+        fields.setLocationTextId("cf-location-text");
+        fields.setLocationId("cf-location");
+        fields.setNotesId("cf-notes");
+        ClickUpRoutingProperties.Route route = new ClickUpRoutingProperties.Route();
+        route.setListId("bench-list");
+        route.setFields(fields);
+        ClickUpRoutingProperties props = new ClickUpRoutingProperties();
+        props.setMap(Map.of(LeadType.CONSTRUCTION.name(), route));
+        return new ClickUpRoutingService(props, null, null, null, null);
+    }
+}
@@ -0,0 +1,57 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.repositories.ContactsRepository;
+import io.dav033.maroconstruction.repositories.LeadNumberCounterRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Repositorios respondidos desde memoria para que los benchmarks midan el trabajo de los servicios y
+ * mappers en la JVM, no la latencia de Postgres. Sólo implementan los métodos que usan los caminos
+ * medidos; cualquier otro lanza UnsupportedOperationException.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    static LeadsRepository leads(Set<String> leadNumbers, Set<String> prefixes) {
+        return stub(LeadsRepository.class, Map.of(
+                "existsByLeadNumber", args -> leadNumbers.contains((String) args[0]),
+                "existsByLeadNumberPrefix", args -> prefixes.contains((String) args[0])));
+    }
+
+    /** Contador que da la vuelta en 999, como el prefijo de tres dígitos del lead number. */
+    static LeadNumberCounterRepository counter() {
+        AtomicInteger last = new AtomicInteger();
+        return stub(LeadNumberCounterRepository.class, Map.of(
+                "increment", args -> Optional.of(last.updateAndGet(v -> v % 999 + 1))));
+    }
+
+    static ContactsRepository contacts(ContactsEntity contact) {
+        Optional<ContactsEntity> found = Optional.of(contact);
+        return stub(ContactsRepository.class, Map.of("findById", args -> found));
+    }
+
+    private static <R> R stub(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            Function<Object[], Object> impl = methods.get(method.getName());
+            if (impl != null) {
+                return impl.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "(memoria)";
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+}
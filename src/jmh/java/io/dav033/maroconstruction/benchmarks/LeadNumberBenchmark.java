@@ -0,0 +1,85 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.dto.responses.LeadNumberValidationResponse;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import io.dav033.maroconstruction.services.LeadNumberAllocator;
+import io.dav033.maroconstruction.services.LeadsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación (LeadNumberAllocator.next) y validación (LeadsService.validateLeadNumber) de lead numbers
+ * con 1k/10k/100k lead numbers existentes. Los repositorios responden desde memoria: se mide el
+ * formateo, las expresiones regulares y las asignaciones, no las consultas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeadNumberBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({ "1000", "10000", "100000" })
+    public int existingLeads;
+
+    private LeadNumberAllocator allocator;
+    private LeadsService leadsService;
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String> numbers = Fixtures.leadNumbers(existingLeads);
+        Set<String> prefixes = new HashSet<>();
+        for (String number : numbers) {
+            prefixes.add(LeadsEntity.numericPrefixOf(number));
+        }
+        LeadsRepository leads = InMemoryRepositories.leads(new HashSet<>(numbers), prefixes);
+        allocator = new LeadNumberAllocator(InMemoryRepositories.counter(), leads);
+        leadsService = new LeadsService(leads, null, null, null, null, null, null, null, null, allocator, null);
+
+        // Mezcla de entradas: existentes, con formato válido y nuevas, y mal formadas
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = switch (i % 3) {
+                case 0 -> numbers.get(i * 7919 % numbers.size());
+                case 1 -> String.format("%03d-0199", i % 1000);
+                default -> " LEAD-" + i + " ";
+            };
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        return allocator.next(LeadType.CONSTRUCTION);
+    }
+
+    @Benchmark
+    public String generatePlumbing() {
+        return allocator.next(LeadType.PLUMBING);
+    }
+
+    @Benchmark
+    public LeadNumberValidationResponse validate() {
+        return leadsService.validateLeadNumber(inputs[next++ & (INPUTS - 1)]);
+    }
+}
@@ -0,0 +1,68 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.dto.Contacts;
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.mappers.ContactsMapper;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** LeadsMapper y ContactsMapper (implementaciones generadas por MapStruct) en ambos sentidos. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private LeadsMapper leadsMapper;
+    private ContactsMapper contactsMapper;
+    private LeadsEntity leadEntity;
+    private ContactsEntity contactEntity;
+    private Leads leadDto;
+    private Contacts contactDto;
+
+    @Setup
+    public void setUp() {
+        leadsMapper = Mappers.getMapper(LeadsMapper.class);
+        contactsMapper = Mappers.getMapper(ContactsMapper.class);
+        contactEntity = Fixtures.contact();
+        leadEntity = Fixtures.lead(contactEntity);
+        leadDto = leadsMapper.toDto(leadEntity);
+        contactDto = contactsMapper.toDto(contactEntity);
+    }
+
+    @Benchmark
+    public Leads leadToDto() {
+        return leadsMapper.toDto(leadEntity);
+    }
+
+    @Benchmark
+    public LeadsEntity leadToEntity() {
+        return leadsMapper.toEntity(leadDto);
+    }
+
+    @Benchmark
+    public Contacts contactToDto() {
+        return contactsMapper.toDto(contactEntity);
+    }
+
+    @Benchmark
+    public ContactsEntity contactToEntity() {
+        return contactsMapper.toEntity(contactDto);
+    }
+}
@@ -0,0 +1,74 @@
+package io.dav033.maroconstruction.benchmarks;
+
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.NotesJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeadsEntity.getNotes: primer acceso (parseo del jsonb cargado por Hibernate) y accesos siguientes
+ * (lista ya cacheada), más la serialización de setNotes, con 1, 10 y 50 notas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotesJsonBenchmark {
+
+    // Caché transitoria de LeadsEntity; vaciarla equivale a una entidad recién cargada
+    private static final VarHandle PARSED_NOTES;
+
+    static {
+        try {
+            PARSED_NOTES = MethodHandles.privateLookupIn(LeadsEntity.class, MethodHandles.lookup())
+                    .findVarHandle(LeadsEntity.class, "notes", List.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({ "1", "10", "50" })
+    public int notes;
+
+    private LeadsEntity lead;
+    private List<String> values;
+
+    @Setup
+    public void setUp() {
+        values = Fixtures.notes(notes);
+        lead = new LeadsEntity();
+        lead.setNotes(values);
+    }
+
+    @Benchmark
+    public List<String> firstAccess() {
+        PARSED_NOTES.set(lead, (List<String>) null);
+        return lead.getNotes();
+    }
+
+    @Benchmark
+    public List<String> cachedAccess() {
+        return lead.getNotes();
+    }
+
+    @Benchmark
+    public String write() {
+        return NotesJson.write(values);
+    }
+}
@@ -0,0 +1,34 @@
+package io.dav033.maroconstruction.config;
+
+import io.dav033.maroconstruction.services.ClickUpCircuitBreaker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/clickupcircuit: estado del circuit breaker y del bulkhead de ClickUp; POST lo cierra a mano.
+ */
+@Component
+@Endpoint(id = "clickupcircuit")
+public class ClickUpCircuitBreakerEndpoint {
+
+    private final ClickUpCircuitBreaker circuitBreaker;
+
+    public ClickUpCircuitBreakerEndpoint(ClickUpCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return circuitBreaker.snapshot();
+    }
+
+    @WriteOperation
+    public Map<String, Object> reset() {
+        circuitBreaker.reset();
+        return circuitBreaker.snapshot();
+    }
+}
@@ -0,0 +1,53 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "clickup.http")
+public class ClickUpHttpProperties {
+
+    private int maxConnections = 20;
+    private int maxConnectionsPerRoute = 20;
+    private long connectTimeoutMs = 3000;
+    private long connectionRequestTimeoutMs = 2000;
+    private long readTimeoutMs = 10000;
+    private long idleTimeoutMs = 30000;
+    private long timeToLiveMs = 300000;
+    private long validateAfterInactivityMs = 2000;
+    // Timeout de respuesta por operación (create, list, update, field, delete, fields)
+    private Map<String, Long> operationReadTimeoutsMs = new HashMap<>();
+    // POSTs de custom fields simultáneos (compartido entre todas las actualizaciones)
+    private int fieldWriteConcurrency = 4;
+    // Presupuesto inicial del rate limiter (se ajusta con X-RateLimit-Limit) y espera máxima antes de descartar
+    private int rateLimitPerMinute = 100;
+    private long rateLimitMaxWaitMs = 30000;
+
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+    public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) { this.maxConnectionsPerRoute = maxConnectionsPerRoute; }
+    public long getConnectTimeoutMs() { return connectTimeoutMs; }
+    public void setConnectTimeoutMs(long connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+    public long getConnectionRequestTimeoutMs() { return connectionRequestTimeoutMs; }
+    public void setConnectionRequestTimeoutMs(long connectionRequestTimeoutMs) { this.connectionRequestTimeoutMs = connectionRequestTimeoutMs; }
+    public long getReadTimeoutMs() { return readTimeoutMs; }
+    public void setReadTimeoutMs(long readTimeoutMs) { this.readTimeoutMs = readTimeoutMs; }
+    public long getIdleTimeoutMs() { return idleTimeoutMs; }
+    public void setIdleTimeoutMs(long idleTimeoutMs) { this.idleTimeoutMs = idleTimeoutMs; }
+    public long getTimeToLiveMs() { return timeToLiveMs; }
+    public void setTimeToLiveMs(long timeToLiveMs) { this.timeToLiveMs = timeToLiveMs; }
+    public long getValidateAfterInactivityMs() { return validateAfterInactivityMs; }
+    public void setValidateAfterInactivityMs(long validateAfterInactivityMs) { this.validateAfterInactivityMs = validateAfterInactivityMs; }
+    public Map<String, Long> getOperationReadTimeoutsMs() { return operationReadTimeoutsMs; }
+    public void setOperationReadTimeoutsMs(Map<String, Long> operationReadTimeoutsMs) { this.operationReadTimeoutsMs = operationReadTimeoutsMs; }
+    public int getFieldWriteConcurrency() { return fieldWriteConcurrency; }
+    public void setFieldWriteConcurrency(int fieldWriteConcurrency) { this.fieldWriteConcurrency = fieldWriteConcurrency; }
+    public int getRateLimitPerMinute() { return rateLimitPerMinute; }
+    public void setRateLimitPerMinute(int rateLimitPerMinute) { this.rateLimitPerMinute = rateLimitPerMinute; }
+    public long getRateLimitMaxWaitMs() { return rateLimitMaxWaitMs; }
+    public void setRateLimitMaxWaitMs(long rateLimitMaxWaitMs) { this.rateLimitMaxWaitMs = rateLimitMaxWaitMs; }
+}
@@ -0,0 +1,37 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "clickup.outbox")
+public class ClickUpOutboxProperties {
+    private boolean enabled = true;
+    private long pollIntervalMs = 2000;
+    private int batchSize = 20;
+    private int parallelism = 2;
+    private int maxAttempts = 8;
+    private long initialBackoffMs = 1000;
+    private long maxBackoffMs = 300000;
+    private long claimTimeoutMs = 300000;
+    private int doneRetentionHours = 72;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getPollIntervalMs() { return pollIntervalMs; }
+    public void setPollIntervalMs(long pollIntervalMs) { this.pollIntervalMs = pollIntervalMs; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public long getInitialBackoffMs() { return initialBackoffMs; }
+    public void setInitialBackoffMs(long initialBackoffMs) { this.initialBackoffMs = initialBackoffMs; }
+    public long getMaxBackoffMs() { return maxBackoffMs; }
+    public void setMaxBackoffMs(long maxBackoffMs) { this.maxBackoffMs = maxBackoffMs; }
+    public long getClaimTimeoutMs() { return claimTimeoutMs; }
+    public void setClaimTimeoutMs(long claimTimeoutMs) { this.claimTimeoutMs = claimTimeoutMs; }
+    public int getDoneRetentionHours() { return doneRetentionHours; }
+    public void setDoneRetentionHours(int doneRetentionHours) { this.doneRetentionHours = doneRetentionHours; }
+}
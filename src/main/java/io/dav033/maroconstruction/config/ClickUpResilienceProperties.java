@@ -0,0 +1,33 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "clickup.resilience")
+public class ClickUpResilienceProperties {
+    // Circuit breaker: ventana de las últimas N llamadas y % de fallos (5xx / I/O) que lo abre
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    private int failureRateThreshold = 50;
+    private long openDurationMs = 30000;
+    private int halfOpenProbes = 3;
+    // Bulkhead: llamadas simultáneas a ClickUp y cuánto esperar un hueco antes de rechazar
+    private int maxConcurrentCalls = 10;
+    private long bulkheadMaxWaitMs = 2000;
+
+    public int getSlidingWindowSize() { return slidingWindowSize; }
+    public void setSlidingWindowSize(int slidingWindowSize) { this.slidingWindowSize = slidingWindowSize; }
+    public int getMinimumCalls() { return minimumCalls; }
+    public void setMinimumCalls(int minimumCalls) { this.minimumCalls = minimumCalls; }
+    public int getFailureRateThreshold() { return failureRateThreshold; }
+    public void setFailureRateThreshold(int failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+    public long getOpenDurationMs() { return openDurationMs; }
+    public void setOpenDurationMs(long openDurationMs) { this.openDurationMs = openDurationMs; }
+    public int getHalfOpenProbes() { return halfOpenProbes; }
+    public void setHalfOpenProbes(int halfOpenProbes) { this.halfOpenProbes = halfOpenProbes; }
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+    public long getBulkheadMaxWaitMs() { return bulkheadMaxWaitMs; }
+    public void setBulkheadMaxWaitMs(long bulkheadMaxWaitMs) { this.bulkheadMaxWaitMs = bulkheadMaxWaitMs; }
+}
@@ -0,0 +1,49 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Ruta ya resuelta de un LeadType: lista de ClickUp e ids de custom fields limpios (sin comentarios
+ * ni espacios; vacío = null). Inmutable, se construye una vez a partir de {@link ClickUpRoutingProperties}.
+ */
+public record ClickUpRoute(
+        String listId,
+        String leadNumberId,
+        boolean leadNumberDiscovered,
+        String contactNameId,
+        String customerNameId,
+        String emailId,
+        String phoneId,
+        String phoneTextId,
+        String locationTextId,
+        String locationId,
+        String notesId) {
+
+    static ClickUpRoute of(ClickUpRoutingProperties.Route route) {
+        ClickUpRoutingProperties.Fields f = route.getFields();
+        if (f == null) {
+            return new ClickUpRoute(route.getListId().trim(), null, false, null, null, null, null, null, null, null, null);
+        }
+        return new ClickUpRoute(
+                route.getListId().trim(),
+                textOrNull(f.getLeadNumberId()),
+                false,
+                textOrNull(f.getContactNameId()),
+                textOrNull(f.getCustomerNameId()),
+                textOrNull(f.getEmailId()),
+                textOrNull(f.getPhoneId()),
+                textOrNull(f.getPhoneTextId()),
+                textOrNull(f.getLocationTextId()),
+                textOrNull(f.getLocationId()),
+                textOrNull(f.getNotesId()));
+    }
+
+    ClickUpRoute withDiscoveredLeadNumberId(String fieldId) {
+        return new ClickUpRoute(listId, fieldId, true, contactNameId, customerNameId, emailId,
+                phoneId, phoneTextId, locationTextId, locationId, notesId);
+    }
+
+    private static String textOrNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+}
@@ -16,6 +16,7 @@ public class ClickUpRoutingProperties {
         private String leadNumberId;
         private String locationTextId;
         private String locationId;
+        private String notesId;
         public String getContactNameId() { return cleanFieldId(contactNameId); }
         public void setContactNameId(String v) { this.contactNameId = v; }
         public String getCustomerNameId() { return cleanFieldId(customerNameId); }
@@ -32,6 +33,8 @@ public class ClickUpRoutingProperties {
         public void setLocationTextId(String v) { this.locationTextId = v; }
         public String getLocationId() { return cleanFieldId(locationId); }
         public void setLocationId(String v) { this.locationId = v; }
+        public String getNotesId() { return cleanFieldId(notesId); }
+        public void setNotesId(String v) { this.notesId = v; }
         private String cleanFieldId(String fieldId) {
             if (fieldId == null) {
                 return null;
@@ -53,6 +56,10 @@ public class ClickUpRoutingProperties {
         public void setFields(Fields fields) { this.fields = fields; }
     }
     private Map<String, Route> map;
+    // Cada cuánto se vuelven a consultar los leadNumberId autodescubiertos (ClickUpRoutingService)
+    private long discoveryRefreshMs = 21600000;
     public Map<String, Route> getMap() { return map; }
     public void setMap(Map<String, Route> map) { this.map = map; }
+    public long getDiscoveryRefreshMs() { return discoveryRefreshMs; }
+    public void setDiscoveryRefreshMs(long discoveryRefreshMs) { this.discoveryRefreshMs = discoveryRefreshMs; }
 }
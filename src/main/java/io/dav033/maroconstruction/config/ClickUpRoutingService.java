@@ -8,86 +8,177 @@ import io.dav033.maroconstruction.services.ClickUpUrlBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Tabla LeadType → {@link ClickUpRoute} construida una sola vez a partir de clickup.routes.map.
+ * Las consultas del camino por lead (route, getListId, resolveLeadNumberFieldId...) son lecturas de
+ * un EnumMap inmutable: sin red, sin reflexión y sin logs. Los leadNumberId que no están configurados
+ * se autodescubren en ClickUp la primera vez, se guardan en la tabla y se refrescan periódicamente.
+ */
 @Service
 public class ClickUpRoutingService {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ClickUpRoutingService.class);
-        public String getLocationId(LeadType type) {
-        try {
-            ClickUpRoutingProperties.Route r = route(type);
-            ClickUpRoutingProperties.Fields f = r.getFields();
-            if (f == null) return null;
-            try {
-                var field = f.getClass().getDeclaredField("locationId");
-                field.setAccessible(true);
-                return (String) field.get(f);
-            } catch (Exception ignored) {}
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
+    private static final List<String> LEAD_NUMBER_FIELD_NAMES = List.of("Lead #", "# Leads");
 
-        public String getLocationTextId(LeadType type) {
-        try {
-            ClickUpRoutingProperties.Route r = route(type);
-            ClickUpRoutingProperties.Fields f = r.getFields();
-            if (f == null) return null;
-            return f.getLocationTextId();
-        } catch (Exception e) {
-            return null;
-        }
-    }
-    private final ClickUpRoutingProperties props;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final ClickUpUrlBuilder urls;
     private final ClickUpHeadersProvider headers;
+    private final Set<LeadType> configuredTypes;
+    // Lock explícito y no synchronized: el descubrimiento hace una llamada HTTP y, en JDK 23, un monitor
+    // retenido durante I/O fija el hilo virtual a su carrier
+    private final ReentrantLock discoveryLock = new ReentrantLock();
+    // Se sustituye entera (copy-on-write) cuando cambia un id autodescubierto
+    private volatile Map<LeadType, ClickUpRoute> routes;
 
     public ClickUpRoutingService(ClickUpRoutingProperties props,
                                  RestTemplate restTemplate,
                                  ObjectMapper objectMapper,
                                  ClickUpUrlBuilder urls,
                                  ClickUpHeadersProvider headers) {
-        this.props = props;
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.urls = urls;
         this.headers = headers;
+        this.routes = buildTable(props);
+        this.configuredTypes = Collections.unmodifiableSet(routes.keySet());
+        log.info("Rutas ClickUp cargadas: {}", configuredTypes);
+    }
+
+    public String getLocationId(LeadType type) {
+        ClickUpRoute r = routes.get(type);
+        return r != null ? r.locationId() : null;
+    }
+
+    public String getLocationTextId(LeadType type) {
+        ClickUpRoute r = routes.get(type);
+        return r != null ? r.locationTextId() : null;
     }
 
     public String resolveLeadNumberFieldId(LeadType type) {
-        log.info("🔍 Resolving leadNumberId for type: {}", type);
-        String fid = null;
-        try {
-            ClickUpRoutingProperties.Route r = route(type);
-            log.info("🔍 Route resolved: {}", r);
-            ClickUpRoutingProperties.Fields f = r.getFields();
-            log.info("🔍 Fields: {}", f);
-            if (f != null) {
-                fid = f.getLeadNumberId();
-                log.info("🔍 LeadNumberId from config: {}", fid);
+        ClickUpRoute r = route(type);
+        if (r.leadNumberId() != null) {
+            return r.leadNumberId();
+        }
+        return discoverLeadNumberFieldId(type);
+    }
+
+    public ClickUpRoute route(LeadType type) {
+        ClickUpRoute r = routes.get(type);
+        if (r == null) {
+            if (routes.isEmpty()) {
+                throw new IllegalStateException(
+                        "ClickUpRoutingProperties.map vacío: faltan propiedades clickup.routes.map.* en application.yml/properties");
             }
-        } catch (Exception e) {
-            log.warn("🔍 Exception getting leadNumberId from config: {}", e.getMessage());
+            throw new IllegalStateException("ClickUp no configurado para leadType=" + type);
         }
-        if (StringUtils.hasText(fid)) {
-            log.info("🔍 Returning configured leadNumberId: {}", fid);
-            return fid;
+        return r;
+    }
+
+    public String getListId(LeadType type) {
+        return route(type).listId();
+    }
+
+    /** LeadType cuya ruta usa {@code listId}, o null si la lista no está en la tabla. */
+    public LeadType typeOfList(String listId) {
+        for (Map.Entry<LeadType, ClickUpRoute> e : routes.entrySet()) {
+            if (e.getValue().listId().equals(listId)) {
+                return e.getKey();
+            }
+        }
+        return null;
+    }
+
+    public boolean isConfigured(LeadType type) {
+        return routes.containsKey(type);
+    }
+
+    public Set<LeadType> configuredTypes() {
+        return configuredTypes;
+    }
+
+    /**
+     * Vuelve a consultar en ClickUp los leadNumberId autodescubiertos (p. ej. si el campo se recreó).
+     * Los ids configurados explícitamente no se tocan.
+     */
+    @Scheduled(initialDelayString = "${clickup.routes.discovery-refresh-ms:21600000}",
+               fixedDelayString = "${clickup.routes.discovery-refresh-ms:21600000}")
+    public void refreshDiscoveredFieldIds() {
+        for (Map.Entry<LeadType, ClickUpRoute> e : routes.entrySet()) {
+            ClickUpRoute r = e.getValue();
+            if (!r.leadNumberDiscovered()) {
+                continue;
+            }
+            String discovered = discoverByName(r.listId(), LEAD_NUMBER_FIELD_NAMES);
+            if (StringUtils.hasText(discovered) && !Objects.equals(discovered, r.leadNumberId())) {
+                log.warn("leadNumberId de {} cambió en ClickUp: {} -> {}", e.getKey(), r.leadNumberId(), discovered);
+                replace(e.getKey(), r.withDiscoveredLeadNumberId(discovered));
+            }
         }
-        String listId = getListId(type);
-        log.info("🔍 Falling back to auto-discovery for listId: {}", listId);
-        String discovered = discoverByName(listId, List.of("Lead #", "# Leads"));
-        if (StringUtils.hasText(discovered)) {
-            log.warn("Auto-descubierto leadNumberId={} para listId={}. Fije este valor en configuración.", discovered, listId);
+    }
+
+    private String discoverLeadNumberFieldId(LeadType type) {
+        discoveryLock.lock();
+        try {
+            ClickUpRoute r = route(type);
+            if (r.leadNumberId() != null) {
+                // Otro hilo lo descubrió mientras esperábamos el lock
+                return r.leadNumberId();
+            }
+            String discovered = discoverByName(r.listId(), LEAD_NUMBER_FIELD_NAMES);
+            if (!StringUtils.hasText(discovered)) {
+                throw new IllegalStateException("No se pudo resolver leadNumberId para " + type + ". Configure el ID o habilite auto-descubrimiento.");
+            }
+            log.warn("Auto-descubierto leadNumberId={} para listId={}. Fije este valor en configuración.", discovered, r.listId());
+            replace(type, r.withDiscoveredLeadNumberId(discovered));
             return discovered;
+        } finally {
+            discoveryLock.unlock();
+        }
+    }
+
+    private void replace(LeadType type, ClickUpRoute route) {
+        discoveryLock.lock();
+        try {
+            EnumMap<LeadType, ClickUpRoute> next = new EnumMap<>(routes);
+            next.put(type, route);
+            routes = Collections.unmodifiableMap(next);
+        } finally {
+            discoveryLock.unlock();
         }
-        throw new IllegalStateException("No se pudo resolver leadNumberId para " + type + ". Configure el ID o habilite auto-descubrimiento.");
+    }
+
+    private static Map<LeadType, ClickUpRoute> buildTable(ClickUpRoutingProperties props) {
+        EnumMap<LeadType, ClickUpRoute> table = new EnumMap<>(LeadType.class);
+        if (props.getMap() != null) {
+            props.getMap().forEach((key, route) -> {
+                LeadType type;
+                try {
+                    type = LeadType.valueOf(key.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    log.warn("clickup.routes.map.{} no corresponde a ningún LeadType; se ignora", key);
+                    return;
+                }
+                if (route == null || !StringUtils.hasText(route.getListId())) {
+                    log.warn("clickup.routes.map.{} sin list-id; ClickUp queda sin configurar para {}", key, type);
+                    return;
+                }
+                table.put(type, ClickUpRoute.of(route));
+            });
+        }
+        return Collections.unmodifiableMap(table);
     }
 
     private String discoverByName(String listId, List<String> names) {
@@ -106,35 +197,4 @@ public class ClickUpRoutingService {
         }
         return null;
     }
-
-    public ClickUpRoutingProperties.Route route(LeadType type) {
-        log.info("🗺️ Getting route for type: {}", type);
-        Map<String, ClickUpRoutingProperties.Route> map = props.getMap();
-        log.info("🗺️ Available routes in map: {}", map != null ? map.keySet() : "null");
-        if (map == null || map.isEmpty()) {
-            throw new IllegalStateException(
-                    "ClickUpRoutingProperties.map vacío: faltan propiedades clickup.routes.map.* en application.yml/properties");
-        }
-        ClickUpRoutingProperties.Route r = map.get(type.name());
-        log.info("🗺️ Route for {}: {}", type.name(), r);
-        if (r == null || r.getListId() == null || r.getListId().isBlank()) {
-            throw new IllegalStateException("ClickUp no configurado para leadType=" + type);
-        }
-        return r;
-    }
-
-    public String getListId(LeadType type) {
-        return route(type).getListId();
-    }
-        public boolean isConfigured(LeadType type) {
-        return props.getMap() != null
-            && props.getMap().containsKey(type.name());
-    }
-
-        public java.util.Set<LeadType> configuredTypes() {
-        if (props.getMap() == null) return java.util.Collections.emptySet();
-        return props.getMap().keySet().stream()
-                .map(LeadType::valueOf)
-                .collect(java.util.stream.Collectors.toCollection(java.util.LinkedHashSet::new));
-    }
 }
@@ -0,0 +1,19 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "diagnostics.pinning")
+public class PinningDiagnosticsProperties {
+    private boolean enabled = true;
+    private long thresholdMs = 20;
+    private int stackDepth = 8;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getThresholdMs() { return thresholdMs; }
+    public void setThresholdMs(long thresholdMs) { this.thresholdMs = thresholdMs; }
+    public int getStackDepth() { return stackDepth; }
+    public void setStackDepth(int stackDepth) { this.stackDepth = stackDepth; }
+}
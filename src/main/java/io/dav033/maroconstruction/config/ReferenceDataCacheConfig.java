@@ -0,0 +1,57 @@
+package io.dav033.maroconstruction.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Caché de datos de referencia. Las cachés son Caffeine (spring.cache.* en application.yml) con
+ * recordStats, así que Actuator publica cache.gets{result=hit|miss}, cache.puts y cache.evictions.
+ * Los endpoints de catálogo además llevan ETag: el navegador revalida y recibe 304 si nada cambió.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class ReferenceDataCacheConfig {
+
+    public static final String PROJECT_TYPES = "projectTypes";
+    public static final String COMPANY_SERVICES = "companyServices";
+
+    /** Revalidar siempre: con el ETag la respuesta sin cambios es un 304 sin cuerpo. */
+    public static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.noCache();
+
+    /**
+     * El mismo CaffeineCacheManager que montaría Spring Boot con spring.cache.*, pero con los put/evict
+     * aplazados al commit: si el @CacheEvict de una escritura se aplicara dentro de la transacción, un
+     * findAll concurrente podría volver a cachear las filas anteriores antes de que la escritura sea visible.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            caffeine.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            caffeine.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/project-type/*", "/project-types/*", "/company-services/*");
+        registration.setName("catalogEtagFilter");
+        return registration;
+    }
+}
@@ -1,13 +1,120 @@
 package io.dav033.maroconstruction.config;
 
+import io.dav033.maroconstruction.services.ClickUpCircuitBreaker;
+import io.dav033.maroconstruction.services.ClickUpRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+
 @Configuration
 public class RestTemplateConfig {
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClickUpHttpProperties props,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     ClickUpCircuitBreaker circuitBreaker,
+                                     ClickUpRateLimiter rateLimiter) {
+        RestTemplate restTemplate = createRestTemplate(props, meterRegistry.getIfAvailable());
+        // El rate limiter va primero: la espera por un token (hasta rate-limit-max-wait-ms) no ocupa un permiso
+        // del bulkhead, que sólo se toma cuando la llamada ya puede salir
+        restTemplate.getInterceptors().add(rateLimiter);
+        restTemplate.getInterceptors().add(circuitBreaker);
+        return restTemplate;
+    }
+
+    static RestTemplate createRestTemplate(ClickUpHttpProperties props, MeterRegistry meterRegistry) {
+        return new RestTemplate(apacheRequestFactory(props, meterRegistry));
+    }
+
+    /**
+     * Pool de conexiones keep-alive: las peticiones consecutivas a api.clickup.com reutilizan la conexión
+     * TCP y la sesión TLS ya negociada. Los reintentos automáticos se desactivan porque ClickUpService
+     * aplica su propia política.
+     */
+    private static ClientHttpRequestFactory apacheRequestFactory(ClickUpHttpProperties props, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(props.getMaxConnections())
+                .setMaxConnPerRoute(props.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(props.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(props.getReadTimeoutMs()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(props.getTimeToLiveMs()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(props.getValidateAfterInactivityMs()))
+                        .build())
+                .build();
+
+        RequestConfig defaultRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(props.getConnectionRequestTimeoutMs()))
+                .setResponseTimeout(Timeout.ofMilliseconds(props.getReadTimeoutMs()))
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(props.getIdleTimeoutMs()))
+                .disableAutomaticRetries()
+                .build();
+
+        if (meterRegistry != null) {
+            // httpcomponents.httpclient.pool.total.{max,connections{state=leased|available},pending}
+            new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "clickup").bindTo(meterRegistry);
+        }
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                Long readTimeout = props.getOperationReadTimeoutsMs().get(operationOf(httpMethod, uri));
+                if (readTimeout == null) {
+                    return null;
+                }
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.copy(defaultRequestConfig)
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build());
+                return context;
+            }
+        };
+    }
+
+    /**
+     * Clasifica una llamada a la API de ClickUp en la operación lógica que la originó
+     * (create, list, update, field, delete, fields) a partir del método y la ruta.
+     */
+    static String operationOf(HttpMethod method, URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        if (path.contains("/field/") || (path.contains("/task/") && path.endsWith("/field"))) {
+            return "field";
+        }
+        if (path.contains("/list/") && path.endsWith("/field")) {
+            return "fields";
+        }
+        if (path.contains("/list/") && path.endsWith("/task")) {
+            return HttpMethod.POST.equals(method) ? "create" : "list";
+        }
+        if (path.contains("/task/")) {
+            if (HttpMethod.DELETE.equals(method)) return "delete";
+            if (HttpMethod.PUT.equals(method)) return "update";
+            return "get";
+        }
+        return "other";
     }
 }
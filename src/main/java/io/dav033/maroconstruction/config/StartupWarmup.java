@@ -0,0 +1,140 @@
+package io.dav033.maroconstruction.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.controllers.ContactsController;
+import io.dav033.maroconstruction.controllers.LeadsController;
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.dto.requests.CreateLeadByNewContactRequest;
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.mappers.ContactsMapper;
+import io.dav033.maroconstruction.mappers.CustomFieldsBuilder;
+import io.dav033.maroconstruction.mappers.LeadToClickUpTaskMapper;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.ProjectTypeEntity;
+import io.dav033.maroconstruction.repositories.ContactsRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import io.dav033.maroconstruction.services.ClickUpOutboxService;
+import io.dav033.maroconstruction.services.ContactsService;
+import io.dav033.maroconstruction.services.JsonArrayStreamer;
+import io.dav033.maroconstruction.services.LeadClickUpSyncService;
+import io.dav033.maroconstruction.services.LeadsService;
+import io.dav033.maroconstruction.services.ProjectTypeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calentamiento opcional (startup.warmup.enabled) para que la primera alta de lead no pague la
+ * inicialización perezosa: crea los beans del camino de leads, recorre el metamodelo de Hibernate y
+ * ejecuta mappers, notas y Jackson con datos sintéticos durante startup.warmup.iterations vueltas.
+ * Corre al terminar de instanciar los singletons, antes de que arranque Tomcat, así que el readiness
+ * no pasa a ACCEPTING_TRAFFIC hasta que acaba. No toca la base de datos ni ClickUp.
+ *
+ * El bean existe siempre y la propiedad se lee en tiempo de ejecución: con AOT las condiciones se
+ * congelan en el build y un @ConditionalOnProperty dejaría el warm-up fuera de la imagen.
+ */
+@Component
+@Lazy(false)
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final List<Class<?>> HOT_BEANS = List.of(
+            LeadsController.class, ContactsController.class,
+            LeadsService.class, ContactsService.class, ProjectTypeService.class,
+            LeadClickUpSyncService.class, ClickUpOutboxService.class, JsonArrayStreamer.class,
+            ClickUpRoutingService.class, CustomFieldsBuilder.class, LeadToClickUpTaskMapper.class,
+            LeadsMapper.class, ContactsMapper.class,
+            LeadsRepository.class, ContactsRepository.class,
+            EntityManagerFactory.class, ObjectMapper.class);
+
+    private final StartupWarmupProperties props;
+    private final ApplicationContext context;
+
+    public StartupWarmup(StartupWarmupProperties props, ApplicationContext context) {
+        this.props = props;
+        this.context = context;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!props.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            HOT_BEANS.forEach(type -> context.getBeanProvider(type).getIfAvailable());
+            touchMetamodel();
+            exercise(Math.max(1, props.getIterations()));
+            log.info("Warm-up completado en {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            // Un fallo aquí sólo significa que la primera petición hará el trabajo; no se bloquea el arranque
+            log.warn("Warm-up interrumpido tras {}ms: {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e.getMessage());
+        }
+    }
+
+    private void touchMetamodel() {
+        context.getBean(EntityManagerFactory.class).getMetamodel().getEntities()
+                .forEach(entity -> entity.getAttributes().forEach(attribute -> attribute.getJavaType()));
+    }
+
+    private void exercise(int iterations) throws Exception {
+        LeadsMapper leadsMapper = context.getBean(LeadsMapper.class);
+        ContactsMapper contactsMapper = context.getBean(ContactsMapper.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ClickUpRoutingService routing = context.getBean(ClickUpRoutingService.class);
+
+        LeadsEntity lead = syntheticLead();
+        for (int i = 0; i < iterations; i++) {
+            lead.setNotes(List.of("warm-up " + i, "segunda nota"));
+            Leads dto = leadsMapper.toDto(lead);
+            byte[] json = objectMapper.writeValueAsBytes(dto);
+            Leads parsed = objectMapper.readValue(json, Leads.class);
+            leadsMapper.toEntity(parsed);
+
+            CreateLeadByNewContactRequest request = new CreateLeadByNewContactRequest();
+            request.setLead(parsed);
+            request.setContact(contactsMapper.toDto(lead.getContact()));
+            CreateLeadByNewContactRequest roundTrip = objectMapper.readValue(
+                    objectMapper.writeValueAsBytes(request), CreateLeadByNewContactRequest.class);
+            contactsMapper.toEntity(roundTrip.getContact());
+        }
+        // Sólo la tabla ya cargada: resolveLeadNumberFieldId podría llamar a ClickUp para autodescubrir
+        routing.configuredTypes().forEach(routing::route);
+    }
+
+    private static LeadsEntity syntheticLead() {
+        ContactsEntity contact = new ContactsEntity();
+        contact.setId(-1L);
+        contact.setName("Warm-up");
+        contact.setEmail("warmup@example.com");
+        contact.setPhone("000-0000");
+        contact.setNotes(List.of("nota"));
+
+        ProjectTypeEntity type = new ProjectTypeEntity();
+        type.setId(-1L);
+        type.setName("Warm-up");
+        type.setColor("#000000");
+
+        LeadsEntity lead = new LeadsEntity();
+        lead.setId(-1L);
+        lead.setLeadNumber("000-0000");
+        lead.setName("Warm-up");
+        lead.setStartDate(LocalDate.now());
+        lead.setLocation("Warm-up");
+        lead.setStatus(LeadStatus.NOT_EXECUTED);
+        lead.setLeadType(LeadType.CONSTRUCTION);
+        lead.setContact(contact);
+        lead.setProjectType(type);
+        return lead;
+    }
+}
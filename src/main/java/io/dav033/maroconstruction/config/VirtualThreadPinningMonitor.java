@@ -0,0 +1,94 @@
+package io.dav033.maroconstruction.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Informe de pinning de hilos virtuales en caliente. Con spring.threads.virtual.enabled=true escucha el
+ * evento JFR jdk.VirtualThreadPinned (un hilo virtual bloqueado sin poder soltar su carrier, p. ej. dentro
+ * de un synchronized o de código nativo) y, por cada aparición por encima de diagnostics.pinning.threshold-ms,
+ * escribe un WARN con la pila y lo registra en el timer virtual.threads.pinned.
+ *
+ * Para un informe offline del mismo evento, arrancar con
+ *   -XX:StartFlightRecording=filename=pinning.jfr,settings=profile
+ * y después
+ *   jfr print --events jdk.VirtualThreadPinned pinning.jfr
+ */
+@Component
+@Lazy(false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(prefix = "diagnostics.pinning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final PinningDiagnosticsProperties props;
+    private final Timer pinned;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(PinningDiagnosticsProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.pinned = Timer.builder("virtual.threads.pinned")
+                .description("Tiempo que un hilo virtual estuvo fijado a su carrier mientras bloqueaba")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT)
+                    .withThreshold(Duration.ofMillis(props.getThresholdMs()))
+                    .withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Diagnóstico de pinning activo (umbral {}ms)", props.getThresholdMs());
+        } catch (RuntimeException e) {
+            // JFR puede no estar disponible (JVM recortada o sin permisos); la app sigue sin el informe
+            log.warn("No se pudo iniciar el diagnóstico de pinning: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isWarnEnabled()) {
+            String thread = event.getThread() != null ? event.getThread().getJavaName() : "?";
+            log.warn("Hilo virtual {} fijado a su carrier durante {}ms en:\n{}",
+                     thread, event.getDuration().toMillis(), topFrames(event));
+        }
+    }
+
+    private String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "  (sin pila)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(Math.max(1, props.getStackDepth()))
+                .map(f -> "  at " + f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package io.dav033.maroconstruction.controllers;
 
 import io.dav033.maroconstruction.dto.Company;
 import io.dav033.maroconstruction.services.CompanyService;
+import io.dav033.maroconstruction.services.JsonArrayStreamer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,14 +16,18 @@ import java.util.List;
 public class CompanyController {
 
     private final CompanyService companyService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public CompanyController(CompanyService companyService) {
+    public CompanyController(CompanyService companyService, JsonArrayStreamer jsonArrayStreamer) {
         this.companyService = companyService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Company>> getCompanies() {
-        return ResponseEntity.ok(companyService.findAll());
+    public ResponseEntity<StreamingResponseBody> getCompanies() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.stream(companyService::streamAll));
     }
 
     @GetMapping("/{id}")
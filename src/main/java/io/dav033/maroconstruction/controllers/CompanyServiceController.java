@@ -1,5 +1,6 @@
 package io.dav033.maroconstruction.controllers;
 
+import io.dav033.maroconstruction.config.ReferenceDataCacheConfig;
 import io.dav033.maroconstruction.dto.CompanyService;
 import io.dav033.maroconstruction.services.CompanyServiceCatalogService;
 import org.springframework.http.ResponseEntity;
@@ -20,12 +21,16 @@ public class CompanyServiceController {
 
     @GetMapping("/all")
     public ResponseEntity<List<CompanyService>> getAll() {
-        return ResponseEntity.ok(service.findAll());
+        return ResponseEntity.ok()
+                .cacheControl(ReferenceDataCacheConfig.CATALOG_CACHE_CONTROL)
+                .body(service.findAll());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CompanyService> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok()
+                .cacheControl(ReferenceDataCacheConfig.CATALOG_CACHE_CONTROL)
+                .body(service.findById(id));
     }
 
     @PostMapping
@@ -2,10 +2,14 @@ package io.dav033.maroconstruction.controllers;
 
 import io.dav033.maroconstruction.dto.Contacts;
 import io.dav033.maroconstruction.dto.requests.GetContactByNameRequest;
+import io.dav033.maroconstruction.dto.responses.ContactSearchResult;
 import io.dav033.maroconstruction.dto.responses.ContactValidationResponse;
 import io.dav033.maroconstruction.services.ContactsService;
+import io.dav033.maroconstruction.services.JsonArrayStreamer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,15 +19,18 @@ import java.util.List;
 public class ContactsController {
 
     private final ContactsService contactsService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public ContactsController(ContactsService contactsService) {
+    public ContactsController(ContactsService contactsService, JsonArrayStreamer jsonArrayStreamer) {
         this.contactsService = contactsService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Contacts>> getContacts() {
-        List<Contacts> contacts = contactsService.findAll();
-        return ResponseEntity.ok(contacts);
+    public ResponseEntity<StreamingResponseBody> getContacts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.stream(contactsService::streamAll));
     }
 
     @GetMapping
@@ -32,6 +39,12 @@ public class ContactsController {
         Contacts contact = contactsService.getContactByName(request.getName());
         return ResponseEntity.ok(contact);
     }
+    @GetMapping("/search")
+    public ResponseEntity<List<ContactSearchResult>> searchContacts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(contactsService.search(q, limit));
+    }
     @GetMapping("/{id}")
     public ResponseEntity<Contacts> getContactById(@PathVariable Long id) {
         Contacts contact = contactsService.getContactById(id);
@@ -2,15 +2,21 @@ package io.dav033.maroconstruction.controllers;
 
 
 import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.dto.requests.AddLeadNoteRequest;
 import io.dav033.maroconstruction.dto.requests.CreateLeadByNewContactRequest;
 import io.dav033.maroconstruction.dto.requests.CreateLeadByExistingContactRequest;
 import io.dav033.maroconstruction.dto.requests.GetLeadsByTypeRequest;
+import io.dav033.maroconstruction.dto.requests.LeadPageRequest;
 import io.dav033.maroconstruction.dto.requests.UpdateLeadRequest;
 import io.dav033.maroconstruction.enums.LeadType;
 import io.dav033.maroconstruction.dto.responses.LeadNumberValidationResponse;
+import io.dav033.maroconstruction.dto.responses.LeadPageResponse;
+import io.dav033.maroconstruction.services.JsonArrayStreamer;
 import io.dav033.maroconstruction.services.LeadsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,15 +26,27 @@ import java.util.List;
 public class LeadsController {
 
     private final LeadsService leadsService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public LeadsController(LeadsService leadsService) {
+    public LeadsController(LeadsService leadsService, JsonArrayStreamer jsonArrayStreamer) {
         this.leadsService = leadsService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping
-    public ResponseEntity<List<Leads>> getAllLeads() {
-        List<Leads> leads = leadsService.getAllLeads();
-        return ResponseEntity.ok(leads);
+    public ResponseEntity<StreamingResponseBody> getAllLeads() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.stream(leadsService::streamAllLeads));
+    }
+
+    /**
+     * Variante paginada de GET /leads: se activa al enviar {@code limit}. Filtros opcionales status, type,
+     * projectTypeId, contactId, from/to (start_date), sort=asc|desc; {@code cursor} = nextCursor anterior.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<LeadPageResponse> getLeadsPage(@ModelAttribute LeadPageRequest request) {
+        return ResponseEntity.ok(leadsService.getLeadsPage(request));
     }
 
     @PostMapping("/type")
@@ -78,6 +96,12 @@ public class LeadsController {
         return ResponseEntity.ok(updatedLead);
     }
 
+    @PostMapping("/{leadId}/notes")
+    public ResponseEntity<List<String>> addNote(@PathVariable Long leadId, @RequestBody AddLeadNoteRequest request) {
+        List<String> notes = leadsService.appendNote(leadId, request.getNote());
+        return ResponseEntity.ok(notes);
+    }
+
     @DeleteMapping("/{leadId}")
     public ResponseEntity<String> deleteLead(@PathVariable Long leadId) {
         boolean deleted = leadsService.deleteLead(leadId);
@@ -1,5 +1,6 @@
 package io.dav033.maroconstruction.controllers;
 
+import io.dav033.maroconstruction.config.ReferenceDataCacheConfig;
 import io.dav033.maroconstruction.dto.ProjectType;
 import io.dav033.maroconstruction.services.ProjectTypeService;
 import org.springframework.http.ResponseEntity;
@@ -24,7 +25,9 @@ public class ProjectTypeController {
     @GetMapping("/all")
     public ResponseEntity<List<ProjectType>> getAllProjectTypes() {
         List<ProjectType> projectTypes = projectTypeService.findAll();
-        return ResponseEntity.ok(projectTypes);
+        return ResponseEntity.ok()
+                .cacheControl(ReferenceDataCacheConfig.CATALOG_CACHE_CONTROL)
+                .body(projectTypes);
     }
 }
 
@@ -42,6 +45,8 @@ class ProjectTypesController {
     @GetMapping("/all")
     public ResponseEntity<List<ProjectType>> getAllProjectTypesPlural() {
         List<ProjectType> projectTypes = projectTypeService.findAll();
-        return ResponseEntity.ok(projectTypes);
+        return ResponseEntity.ok()
+                .cacheControl(ReferenceDataCacheConfig.CATALOG_CACHE_CONTROL)
+                .body(projectTypes);
     }
 }
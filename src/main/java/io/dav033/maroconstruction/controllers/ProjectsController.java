@@ -1,23 +1,24 @@
 package io.dav033.maroconstruction.controllers;
 
-import io.dav033.maroconstruction.dto.Projects;
+import io.dav033.maroconstruction.services.JsonArrayStreamer;
 import io.dav033.maroconstruction.services.ProjectService;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(value = "/projects", produces = "application/json")
 public class ProjectsController {
 
     private final ProjectService projectService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public ProjectsController(ProjectService projectService) {
+    public ProjectsController(ProjectService projectService, JsonArrayStreamer jsonArrayStreamer) {
         this.projectService = projectService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
         @GetMapping("/with-leads")
-    public List<Projects> getAllWithLeads() {
-        return projectService.getProjectsWithLead();
+    public StreamingResponseBody getAllWithLeads() {
+        return jsonArrayStreamer.stream(projectService::streamProjectsWithLead);
     }
 }
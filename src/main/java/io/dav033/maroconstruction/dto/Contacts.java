@@ -1,24 +1,29 @@
 package io.dav033.maroconstruction.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dav033.maroconstruction.models.NotesJson;
 
 public class Contacts {
         private String notesJson;
 
+        private java.util.List<String> notes;
+
         public java.util.List<String> getNotes() {
-            if (notesJson == null || notesJson.isEmpty()) return new java.util.ArrayList<>();
-            try {
-                return new com.fasterxml.jackson.databind.ObjectMapper().readValue(notesJson, java.util.List.class);
-            } catch (Exception e) {
-                return new java.util.ArrayList<>();
+            if (notes == null) {
+                notes = NotesJson.parse(notesJson);
             }
+            return notes;
         }
         public void setNotes(java.util.List<String> notes) {
-            try {
-                this.notesJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(notes);
-            } catch (Exception e) {
-                this.notesJson = "[]";
-            }
+            this.notes = notes;
+            this.notesJson = null;
+        }
+        /** Asigna las notas ya serializadas (p. ej. desde una proyección); se parsean al leerlas. */
+        @JsonIgnore
+        public void setNotesJson(String notesJson) {
+            this.notesJson = notesJson;
+            this.notes = null;
         }
     private Long id;
     private String name;
@@ -0,0 +1,33 @@
+package io.dav033.maroconstruction.dto;
+
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+
+import java.time.LocalDate;
+
+/**
+ * Fila plana del listado de leads (lead + contacto + tipo de proyecto) cargada con un constructor
+ * JPQL: no pasa por entidades gestionadas ni por el persistence context.
+ */
+public record LeadListRow(
+        Long id,
+        String leadNumber,
+        String name,
+        LocalDate startDate,
+        String location,
+        LeadStatus status,
+        LeadType leadType,
+        String notesJson,
+        Long contactId,
+        String contactName,
+        String contactOccupation,
+        String contactPhone,
+        String contactEmail,
+        String contactAddress,
+        Boolean contactCustomer,
+        Boolean contactClient,
+        String contactNotesJson,
+        Long projectTypeId,
+        String projectTypeName,
+        String projectTypeColor
+) {}
@@ -9,6 +9,7 @@ public class LeadPayloadDto {
     private String startDate;
     private String status;
     private Long contactId;
+    private java.util.List<String> notes;
 
     public LeadPayloadDto() {}
 
@@ -29,6 +30,9 @@ public class LeadPayloadDto {
     public Long getContactId() { return contactId; }
     public void setContactId(Long contactId) { this.contactId = contactId; }
 
+    public java.util.List<String> getNotes() { return notes; }
+    public void setNotes(java.util.List<String> notes) { this.notes = notes; }
+
     public static Builder builder() { return new Builder(); }
 
     public static final class Builder {
@@ -42,6 +46,7 @@ public class LeadPayloadDto {
         public Builder startDate(String startDate) { instance.setStartDate(startDate); return this; }
         public Builder status(String status) { instance.setStatus(status); return this; }
         public Builder contactId(Long contactId) { instance.setContactId(contactId); return this; }
+        public Builder notes(java.util.List<String> notes) { instance.setNotes(notes); return this; }
         public LeadPayloadDto build() { return instance; }
     }
 }
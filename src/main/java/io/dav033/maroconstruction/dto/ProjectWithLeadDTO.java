@@ -1,21 +1,30 @@
 package io.dav033.maroconstruction.dto;
 
-import java.time.LocalDate;
+import io.dav033.maroconstruction.enums.InvoiceStatus;
+import io.dav033.maroconstruction.enums.ProjectStatus;
 
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Proyección de GET /projects/with-leads: columnas del proyecto, del lead y del contacto en una sola
+ * fila, cargadas con un constructor JPQL sin hidratar ProjectEntity/LeadsEntity/ContactsEntity.
+ */
 public record ProjectWithLeadDTO(
         Long id,
         String projectName,
         String overview,
-        String projectStatus,
-        String invoiceStatus,
+        List<BigDecimal> payments,
+        ProjectStatus projectStatus,
+        InvoiceStatus invoiceStatus,
         Boolean quickbooks,
-        LocalDate startDate,
-        LocalDate endDate,
+        Date startDate,
+        Date endDate,
         Long leadId,
         String leadNumber,
         String leadName,
         String location,
         Long contactId,
-        String contactName,
-        String customerName
+        String contactName
 ) {}
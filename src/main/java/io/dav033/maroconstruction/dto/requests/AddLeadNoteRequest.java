@@ -0,0 +1,9 @@
+package io.dav033.maroconstruction.dto.requests;
+
+public class AddLeadNoteRequest {
+    private String note;
+
+    public AddLeadNoteRequest() {}
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+}
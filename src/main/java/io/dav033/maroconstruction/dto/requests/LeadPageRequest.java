@@ -0,0 +1,50 @@
+package io.dav033.maroconstruction.dto.requests;
+
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Parámetros de GET /leads?limit=...: filtros opcionales, orden por start_date (asc|desc) y el
+ * cursor devuelto por la página anterior.
+ */
+public class LeadPageRequest {
+    private Integer limit;
+    private String cursor;
+    private String sort = "desc";
+    private LeadStatus status;
+    private LeadType type;
+    private Long projectTypeId;
+    private Long contactId;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    public LeadPageRequest() {}
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public LeadStatus getStatus() { return status; }
+    public void setStatus(LeadStatus status) { this.status = status; }
+    public LeadType getType() { return type; }
+    public void setType(LeadType type) { this.type = type; }
+    public Long getProjectTypeId() { return projectTypeId; }
+    public void setProjectTypeId(Long projectTypeId) { this.projectTypeId = projectTypeId; }
+    public Long getContactId() { return contactId; }
+    public void setContactId(Long contactId) { this.contactId = contactId; }
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public boolean isAscending() {
+        return "asc".equalsIgnoreCase(sort);
+    }
+}
@@ -0,0 +1,10 @@
+package io.dav033.maroconstruction.dto.responses;
+
+/** Resultado ligero de /contacts/search: lo justo para pintar la sugerencia y seleccionar el contacto. */
+public record ContactSearchResult(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        double score
+) {}
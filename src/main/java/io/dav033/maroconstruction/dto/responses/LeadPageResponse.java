@@ -0,0 +1,29 @@
+package io.dav033.maroconstruction.dto.responses;
+
+import io.dav033.maroconstruction.dto.Leads;
+
+import java.util.List;
+
+public class LeadPageResponse {
+    private List<Leads> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public LeadPageResponse() {}
+
+    public List<Leads> getItems() { return items; }
+    public void setItems(List<Leads> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public static Builder builder() { return new Builder(); }
+    public static final class Builder {
+        private final LeadPageResponse instance = new LeadPageResponse();
+        public Builder items(List<Leads> v) { instance.setItems(v); return this; }
+        public Builder nextCursor(String v) { instance.setNextCursor(v); return this; }
+        public Builder hasMore(boolean v) { instance.setHasMore(v); return this; }
+        public LeadPageResponse build() { return instance; }
+    }
+}
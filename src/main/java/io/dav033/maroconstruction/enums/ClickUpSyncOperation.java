@@ -0,0 +1,7 @@
+package io.dav033.maroconstruction.enums;
+
+public enum ClickUpSyncOperation {
+    CREATE,
+    UPDATE,
+    DELETE
+}
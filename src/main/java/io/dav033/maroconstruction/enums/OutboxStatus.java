@@ -0,0 +1,8 @@
+package io.dav033.maroconstruction.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    IN_PROGRESS,
+    DONE,
+    DEAD
+}
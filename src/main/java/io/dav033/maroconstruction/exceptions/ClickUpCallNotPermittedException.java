@@ -0,0 +1,18 @@
+package io.dav033.maroconstruction.exceptions;
+
+/**
+ * La llamada a ClickUp no llegó a salir: circuito abierto, bulkhead lleno o presupuesto del rate limiter agotado.
+ */
+public class ClickUpCallNotPermittedException extends ClickUpException {
+
+    private final long retryAfterMs;
+
+    public ClickUpCallNotPermittedException(String message, long retryAfterMs) {
+        super(message, 503, null);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
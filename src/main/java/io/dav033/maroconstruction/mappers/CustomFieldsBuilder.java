@@ -32,7 +32,6 @@ public class CustomFieldsBuilder {
         LeadType type = LeadType.valueOf(dto.getLeadType().trim().toUpperCase());
         String number = dto.getLeadNumber();
         var r = routingService.route(type);
-        var f = r.getFields();
         String leadNumberFieldId = routingService.resolveLeadNumberFieldId(type);
         if (!org.springframework.util.StringUtils.hasText(number)) {
             throw new IllegalStateException("LeadNumber vacío al crear tarea (leadType=" + type + ")");
@@ -54,25 +53,18 @@ public class CustomFieldsBuilder {
         String contactEmail = contact != null ? Optional.ofNullable(contact.getEmail()).orElse("") : "";
         String contactPhone = contact != null ? Optional.ofNullable(contact.getPhone()).orElse("") : "";
 
-        addField(fields, f != null ? f.getContactNameId() : null,  contactName,   true);
-        addField(fields, f != null ? f.getCustomerNameId() : null, contactName,   true);
-        addField(fields, f != null ? f.getEmailId() : null,        contactEmail,  true);
+        addField(fields, r.contactNameId(),  contactName,   true);
+        addField(fields, r.customerNameId(), contactName,   true);
+        addField(fields, r.emailId(),        contactEmail,  true);
         
         // Para campos de tipo "phone" en ClickUp, formatear con código de país
         String formattedPhone = formatPhoneForClickUp(contactPhone);
-        addField(fields, f != null ? f.getPhoneId() : null,        formattedPhone,  true);
-        addField(fields, f != null ? f.getPhoneTextId() : null,    contactPhone,  true);
+        addField(fields, r.phoneId(),        formattedPhone,  true);
+        addField(fields, r.phoneTextId(),    contactPhone,  true);
         String addr = dto.getLocation();
-        String addrTextId = f != null ? f.getLocationTextId() : null;
-        String locationId = null;
-        if (f != null) {
-            try {
-                var field = f.getClass().getDeclaredField("locationId");
-                field.setAccessible(true);
-                locationId = (String) field.get(f);
-            } catch (Exception ignored) {}
-        }
-        if (org.springframework.util.StringUtils.hasText(locationId)) {
+        String addrTextId = r.locationTextId();
+        String locationId = r.locationId();
+        if (locationId != null) {
             Object locationValue = null;
             if (addr != null && !addr.isBlank()) {
                 java.util.Map<String, Object> loc = new java.util.HashMap<>();
@@ -82,10 +74,19 @@ public class CustomFieldsBuilder {
             addField(fields, locationId, locationValue, true);
         }
         addField(fields, addrTextId, addr, true);
+        if (dto.getNotes() != null) {
+            addField(fields, r.notesId(), formatNotes(dto.getNotes()), true);
+        }
 
         return fields;
     }
 
+    // Campo de texto largo: una nota por línea, en el orden en que se añadieron
+    private String formatNotes(List<String> notes) {
+        if (notes == null || notes.isEmpty()) return null;
+        return String.join("\n", notes);
+    }
+
     private void addField(List<ClickUpTaskRequest.CustomField> out, String fieldId, Object value, boolean clearIfMissing) {
         if (fieldId == null || fieldId.isBlank()) return;
         if (value == null) {
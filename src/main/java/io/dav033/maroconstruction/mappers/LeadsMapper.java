@@ -17,4 +17,10 @@ public interface LeadsMapper extends GenericMapper<Leads, LeadsEntity> {
 	@Override
 	@Mapping(target = "notes", source = "notes")
 	LeadsEntity toEntity(Leads dto);
+
+	/** Sin tocar projectType: para no inicializar una referencia cuando el tipo ya viene de la caché. */
+	@Named("withoutProjectType")
+	@Mapping(target = "notes", source = "notes")
+	@Mapping(target = "projectType", ignore = true)
+	Leads toDtoWithoutProjectType(LeadsEntity entity);
 }
@@ -0,0 +1,111 @@
+package io.dav033.maroconstruction.models;
+
+import io.dav033.maroconstruction.enums.ClickUpSyncOperation;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "clickup_outbox",
+    indexes = {
+        @Index(name = "idx_clickup_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_clickup_outbox_lead_id", columnList = "lead_id")
+    }
+)
+public class ClickUpOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "lead_id", nullable = false)
+    private Long leadId;
+
+    @Column(name = "lead_number", length = 50)
+    private String leadNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lead_type", columnDefinition = "text")
+    private LeadType leadType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 16, nullable = false)
+    private ClickUpSyncOperation operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+        if (status == null) status = OutboxStatus.PENDING;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public ClickUpOutboxEntity() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getLeadId() { return leadId; }
+    public void setLeadId(Long leadId) { this.leadId = leadId; }
+    public String getLeadNumber() { return leadNumber; }
+    public void setLeadNumber(String leadNumber) { this.leadNumber = leadNumber; }
+    public LeadType getLeadType() { return leadType; }
+    public void setLeadType(LeadType leadType) { this.leadType = leadType; }
+    public ClickUpSyncOperation getOperation() { return operation; }
+    public void setOperation(ClickUpSyncOperation operation) { this.operation = operation; }
+    public OutboxStatus getStatus() { return status; }
+    public void setStatus(OutboxStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public LocalDateTime getLockedAt() { return lockedAt; }
+    public void setLockedAt(LocalDateTime lockedAt) { this.lockedAt = lockedAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public String toString() {
+        return "ClickUpOutboxEntity{" +
+                "id=" + id +
+                ", leadId=" + leadId +
+                ", operation=" + operation +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package io.dav033.maroconstruction.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(
@@ -12,23 +14,24 @@ import jakarta.persistence.*;
     }
 )
 public class ContactsEntity {
-    @Column(name = "notes", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "notes")
     private String notesJson;
 
+    // Notas parseadas bajo demanda: como mucho una vez por instancia
+    @Transient
+    private java.util.List<String> notes;
+
     public java.util.List<String> getNotes() {
-        if (notesJson == null || notesJson.isEmpty()) return new java.util.ArrayList<>();
-        try {
-            return new com.fasterxml.jackson.databind.ObjectMapper().readValue(notesJson, java.util.List.class);
-        } catch (Exception e) {
-            return new java.util.ArrayList<>();
+        if (notes == null) {
+            notes = NotesJson.parse(notesJson);
         }
+        return notes;
     }
     public void setNotes(java.util.List<String> notes) {
-        try {
-            this.notesJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(notes);
-        } catch (Exception e) {
-            this.notesJson = "[]";
-        }
+        // Solo se serializa al cambiar las notas; Hibernate compara el texto resultante
+        this.notesJson = NotesJson.write(notes);
+        this.notes = null;
     }
 
     @Id
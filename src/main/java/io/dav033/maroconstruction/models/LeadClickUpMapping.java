@@ -3,6 +3,7 @@ package io.dav033.maroconstruction.models;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
 @Table(name = "lead_clickup_mapping")
@@ -26,6 +27,14 @@ public class LeadClickUpMapping {
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
+
+    // Hash del último estado enviado a ClickUp (nombre/descripción/fechas) y de cada custom field por id
+    @Column(name = "task_hash", length = 64)
+    private String taskHash;
+
+    @Column(name = "field_hashes", columnDefinition = "text")
+    @Convert(converter = StringMapToJsonConverter.class)
+    private Map<String, String> fieldHashes;
     
     @PrePersist
     protected void onCreate() {
@@ -46,4 +55,8 @@ public class LeadClickUpMapping {
     public void setClickUpTaskUrl(String clickUpTaskUrl) { this.clickUpTaskUrl = clickUpTaskUrl; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getTaskHash() { return taskHash; }
+    public void setTaskHash(String taskHash) { this.taskHash = taskHash; }
+    public Map<String, String> getFieldHashes() { return fieldHashes; }
+    public void setFieldHashes(Map<String, String> fieldHashes) { this.fieldHashes = fieldHashes; }
 }
@@ -0,0 +1,42 @@
+package io.dav033.maroconstruction.models;
+
+import io.dav033.maroconstruction.enums.LeadType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último prefijo numérico asignado por LeadType. Las filas se incrementan con UPDATE atómico desde
+ * {@link io.dav033.maroconstruction.repositories.LeadNumberCounterRepository}; la entidad existe para
+ * que el esquema quede declarado junto al resto.
+ */
+@Entity
+@Table(name = "lead_number_counter")
+public class LeadNumberCounterEntity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lead_type", columnDefinition = "text")
+    private LeadType leadType;
+
+    @Column(name = "last_value", nullable = false)
+    private int lastValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public LeadNumberCounterEntity() {}
+
+    public LeadType getLeadType() { return leadType; }
+    public void setLeadType(LeadType leadType) { this.leadType = leadType; }
+    public int getLastValue() { return lastValue; }
+    public void setLastValue(int lastValue) { this.lastValue = lastValue; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,13 +3,32 @@ package io.dav033.maroconstruction.models;
 import io.dav033.maroconstruction.enums.LeadStatus;
 import io.dav033.maroconstruction.enums.LeadType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "leads")
+@Table(
+    name = "leads",
+    indexes = {
+        @Index(name = "idx_leads_lead_number_prefix", columnList = "lead_number_prefix"),
+        @Index(name = "idx_leads_type_period", columnList = "lead_type, lead_number_period"),
+        // Keyset del listado paginado (start_date, id), con y sin filtro de tipo/estado
+        @Index(name = "idx_leads_start_date_id", columnList = "start_date, id"),
+        @Index(name = "idx_leads_type_start_date_id", columnList = "lead_type, start_date, id"),
+        @Index(name = "idx_leads_status_start_date_id", columnList = "status, start_date, id"),
+        @Index(name = "idx_leads_contact_id", columnList = "contact_id"),
+        @Index(name = "idx_leads_project_type", columnList = "type")
+    }
+)
 public class LeadsEntity {
 
+    // NNN-MMyy o NNNP-MMyy (plumbing)
+    private static final Pattern LEAD_NUMBER_FORMAT = Pattern.compile("^(\\d{3})P?-(\\d{4})$");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
@@ -18,6 +37,13 @@ public class LeadsEntity {
     @Column(name = "lead_number", length = 50, nullable = false, unique = true)
     private String leadNumber;
 
+    // Prefijo numérico y sufijo MMyy del lead number, derivados al guardar para validar con un índice
+    @Column(name = "lead_number_prefix", length = 3)
+    private String leadNumberPrefix;
+
+    @Column(name = "lead_number_period", length = 4)
+    private String leadNumberPeriod;
+
     @Column(name = "name", length = 100, nullable = false)
     private String name;
 
@@ -43,9 +69,14 @@ public class LeadsEntity {
     @JoinColumn(name = "type", nullable = true)
     private ProjectTypeEntity projectType;
 
-    @Column(name = "notes", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "notes")
     private String notesJson;
 
+    // Notas parseadas bajo demanda: como mucho una vez por instancia
+    @Transient
+    private java.util.List<String> notes;
+
     @Transient
     public Long getContactId() {
         return (contact != null ? contact.getId() : null);
@@ -57,27 +88,44 @@ public class LeadsEntity {
     }
 
     public java.util.List<String> getNotes() {
-        if (notesJson == null || notesJson.isEmpty()) return new java.util.ArrayList<>();
-        try {
-            return new com.fasterxml.jackson.databind.ObjectMapper().readValue(notesJson, java.util.List.class);
-        } catch (Exception e) {
-            return new java.util.ArrayList<>();
+        if (notes == null) {
+            notes = NotesJson.parse(notesJson);
         }
+        return notes;
     }
     public void setNotes(java.util.List<String> notes) {
-        try {
-            this.notesJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(notes);
-        } catch (Exception e) {
-            this.notesJson = "[]";
+        // Solo se serializa al cambiar las notas; Hibernate compara el texto resultante
+        this.notesJson = NotesJson.write(notes);
+        this.notes = null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void deriveLeadNumberParts() {
+        Matcher m = leadNumber != null ? LEAD_NUMBER_FORMAT.matcher(leadNumber) : null;
+        if (m != null && m.matches()) {
+            leadNumberPrefix = m.group(1);
+            leadNumberPeriod = m.group(2);
+        } else {
+            leadNumberPrefix = null;
+            leadNumberPeriod = null;
         }
     }
 
+    /** Prefijo de 3 dígitos de un lead number con formato válido, o null. */
+    public static String numericPrefixOf(String leadNumber) {
+        Matcher m = LEAD_NUMBER_FORMAT.matcher(leadNumber);
+        return m.matches() ? m.group(1) : null;
+    }
+
     public LeadsEntity() {}
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getLeadNumber() { return leadNumber; }
     public void setLeadNumber(String leadNumber) { this.leadNumber = leadNumber; }
+    public String getLeadNumberPrefix() { return leadNumberPrefix; }
+    public String getLeadNumberPeriod() { return leadNumberPeriod; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     public LocalDate getStartDate() { return startDate; }
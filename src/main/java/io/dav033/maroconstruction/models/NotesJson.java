@@ -0,0 +1,45 @@
+package io.dav033.maroconstruction.models;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lectura/escritura del array JSON de notas de leads y contactos. ObjectReader y ObjectWriter son
+ * inmutables y thread-safe, así que se comparten en vez de crear un ObjectMapper por llamada.
+ */
+public final class NotesJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(new TypeReference<List<String>>() {});
+    private static final ObjectWriter WRITER = MAPPER.writerFor(new TypeReference<List<String>>() {});
+
+    public static final String EMPTY = "[]";
+
+    private NotesJson() {}
+
+    /** Devuelve una lista no modificable; JSON vacío o inválido se trata como sin notas. */
+    public static List<String> parse(String json) {
+        if (json == null || json.isBlank()) return List.of();
+        try {
+            List<String> notes = READER.readValue(json);
+            return notes == null ? List.of() : Collections.unmodifiableList(notes);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    public static String write(List<String> notes) {
+        if (notes == null || notes.isEmpty()) return EMPTY;
+        try {
+            return WRITER.writeValueAsString(notes);
+        } catch (Exception e) {
+            return EMPTY;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.dav033.maroconstruction.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+
+@Converter
+public class StringMapToJsonConverter implements AttributeConverter<Map<String, String>, String> {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> attribute) {
+        if (attribute == null) return null;
+        try {
+            return objectMapper.writeValueAsString(attribute);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) return null;
+        try {
+            return objectMapper.readValue(dbData, new TypeReference<Map<String, String>>() {});
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.dav033.maroconstruction.repositories;
+
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import io.dav033.maroconstruction.models.ClickUpOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClickUpOutboxRepository extends JpaRepository<ClickUpOutboxEntity, Long> {
+
+    /**
+     * Bloquea un lote de eventos listos para enviar. SKIP LOCKED permite que varios nodos/hilos
+     * reclamen en paralelo sin pisarse, y el NOT EXISTS mantiene el orden por lead: un evento no
+     * se entrega mientras haya otro anterior del mismo lead pendiente o en curso.
+     */
+    @Query(value = """
+            SELECT * FROM clickup_outbox o
+            WHERE o.status = 'PENDING'
+              AND o.next_attempt_at <= :now
+              AND NOT EXISTS (
+                  SELECT 1 FROM clickup_outbox prev
+                  WHERE prev.lead_id = o.lead_id
+                    AND prev.id < o.id
+                    AND prev.status IN ('PENDING', 'IN_PROGRESS'))
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ClickUpOutboxEntity> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE ClickUpOutboxEntity o
+            SET o.status = :pending, o.lockedAt = null
+            WHERE o.status = :inProgress
+              AND o.lockedAt < :lockedBefore
+            """)
+    int releaseStaleClaims(@Param("pending") OutboxStatus pending,
+                           @Param("inProgress") OutboxStatus inProgress,
+                           @Param("lockedBefore") LocalDateTime lockedBefore);
+
+    @Modifying
+    @Query("DELETE FROM ClickUpOutboxEntity o WHERE o.status = :status AND o.updatedAt < :before")
+    int deleteByStatusOlderThan(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+
+    long countByStatus(OutboxStatus status);
+}
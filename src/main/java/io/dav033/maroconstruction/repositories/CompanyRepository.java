@@ -1,11 +1,24 @@
 package io.dav033.maroconstruction.repositories;
 
 import io.dav033.maroconstruction.models.CompanyEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CompanyRepository extends JpaRepository<CompanyEntity, Long> {
     boolean existsByNameIgnoreCase(String name);
+
+    @Query("SELECT c FROM CompanyEntity c")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CompanyEntity> streamAll();
+
     List<CompanyEntity> findByCustomerTrue();
     List<CompanyEntity> findByClientTrue();
 }
@@ -1,26 +1,116 @@
 package io.dav033.maroconstruction.repositories;
 
 import io.dav033.maroconstruction.models.ContactsEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ContactsRepository extends JpaRepository<ContactsEntity, Long> {
 
     @Query("SELECT c FROM ContactsEntity c WHERE c.name = :name")
     Optional<ContactsEntity> findByName(@Param("name") String name);
 
-    boolean existsByNameIgnoreCase(String name);
-    boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
+    /** Resultado de {@link #checkAvailability}: true si el valor ya lo usa otro contacto. */
+    interface Availability {
+        boolean getNameTaken();
+        boolean getEmailTaken();
+        boolean getPhoneTaken();
+    }
 
-    boolean existsByEmailIgnoreCase(String email);
-    boolean existsByEmailIgnoreCaseAndIdNot(String email, Long id);
+    /**
+     * Las tres comprobaciones de /contacts/validate en un solo round trip. Cada EXISTS repite la expresión y
+     * el predicado de su índice único (ux_contacts_name_ci, ux_contacts_email_ci, ux_contacts_phone) para que
+     * sea un index probe. Un parámetro null nunca coincide; {@code excludeId} 0 no excluye a nadie.
+     */
+    @Query(value = """
+            SELECT
+              EXISTS (SELECT 1 FROM contacts c
+                      WHERE lower(c.name) = lower(CAST(:name AS text))
+                        AND c.id <> :excludeId) AS "nameTaken",
+              EXISTS (SELECT 1 FROM contacts c
+                      WHERE lower(c.email) = lower(CAST(:email AS text))
+                        AND c.email IS NOT NULL AND c.email <> ''
+                        AND c.id <> :excludeId) AS "emailTaken",
+              EXISTS (SELECT 1 FROM contacts c
+                      WHERE c.phone = CAST(:phone AS text)
+                        AND c.phone IS NOT NULL AND c.phone <> ''
+                        AND c.id <> :excludeId) AS "phoneTaken"
+            """, nativeQuery = true)
+    Availability checkAvailability(@Param("name") String name,
+                                   @Param("email") String email,
+                                   @Param("phone") String phone,
+                                   @Param("excludeId") long excludeId);
 
-    boolean existsByPhone(String phone);
-    boolean existsByPhoneAndIdNot(String phone, Long id);
+    interface SearchHit {
+        Long getId();
+        String getName();
+        String getEmail();
+        String getPhone();
+        double getScore();
+    }
+
+    /**
+     * Typeahead sobre los índices trigram de V013: prefijo y similitud en nombre/email, subcadena de dígitos
+     * en teléfono. Los prefijos de nombre van primero y después el resto por similitud. {@code prefix} y
+     * {@code phoneDigits} llegan ya como patrones LIKE escapados; {@code phoneDigits} null desactiva el teléfono.
+     * Los parámetros llevan CAST como en {@link #checkAvailability}: Postgres no puede tipar un null sin tipo.
+     */
+    @Query(value = """
+            SELECT c.id AS "id", c.name AS "name", c.email AS "email", c.phone AS "phone",
+                   CAST(GREATEST(
+                       word_similarity(CAST(:q AS text), lower(c.name)),
+                       similarity(lower(c.email), CAST(:q AS text)),
+                       CASE WHEN regexp_replace(c.phone, '\\D', '', 'g') LIKE CAST(:phoneDigits AS text) THEN 1.0 ELSE 0 END
+                   ) + CASE WHEN lower(c.name) LIKE CAST(:prefix AS text) THEN 1.0 ELSE 0 END AS double precision) AS "score"
+            FROM contacts c
+            WHERE lower(c.name) LIKE CAST(:prefix AS text)
+               OR CAST(:q AS text) <% lower(c.name)
+               OR lower(c.email) LIKE CAST(:prefix AS text)
+               OR lower(c.email) % CAST(:q AS text)
+               OR regexp_replace(c.phone, '\\D', '', 'g') LIKE CAST(:phoneDigits AS text)
+            ORDER BY "score" DESC, c.name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchHit> search(@Param("q") String q,
+                           @Param("prefix") String prefix,
+                           @Param("phoneDigits") String phoneDigits,
+                           @Param("limit") int limit);
+
+    /** Si pg_trgm está instalada (la crea V013); sin ella {@link #search} falla. */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", nativeQuery = true)
+    boolean isTrigramSearchAvailable();
+
+    /**
+     * {@link #search} sin pg_trgm: prefijo en nombre/email y subcadena de dígitos en teléfono, sin similitud.
+     * La puntuación sigue la misma escala, con los prefijos de nombre primero.
+     */
+    @Query(value = """
+            SELECT c.id AS "id", c.name AS "name", c.email AS "email", c.phone AS "phone",
+                   CAST(CASE WHEN lower(c.name) LIKE CAST(:prefix AS text) THEN 2.0 ELSE 1.0 END AS double precision) AS "score"
+            FROM contacts c
+            WHERE lower(c.name) LIKE CAST(:prefix AS text)
+               OR lower(c.email) LIKE CAST(:prefix AS text)
+               OR regexp_replace(c.phone, '\\D', '', 'g') LIKE CAST(:phoneDigits AS text)
+            ORDER BY "score" DESC, c.name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SearchHit> searchByPrefix(@Param("prefix") String prefix,
+                                   @Param("phoneDigits") String phoneDigits,
+                                   @Param("limit") int limit);
+
+    @Query("SELECT c FROM ContactsEntity c")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ContactsEntity> streamAll();
 
     List<ContactsEntity> findByCustomerTrue();
     List<ContactsEntity> findByClientTrue();
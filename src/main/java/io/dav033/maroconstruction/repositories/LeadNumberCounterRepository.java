@@ -0,0 +1,52 @@
+package io.dav033.maroconstruction.repositories;
+
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.LeadNumberCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LeadNumberCounterRepository extends JpaRepository<LeadNumberCounterEntity, LeadType> {
+
+    /**
+     * Incrementa y devuelve el contador. El UPDATE deja la fila bloqueada hasta el commit, así que dos
+     * altas simultáneas (en cualquier nodo) nunca obtienen el mismo valor, y un rollback no deja huecos.
+     * Vacío si aún no existe fila para el tipo.
+     */
+    @Query(value = """
+            UPDATE lead_number_counter
+            SET last_value = last_value + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE lead_type = :leadType
+            RETURNING last_value
+            """, nativeQuery = true)
+    Optional<Integer> increment(@Param("leadType") String leadType);
+
+    /**
+     * Crea la fila del tipo partiendo del mayor prefijo existente en leads. Sólo se ejecuta una vez por
+     * tipo (la primera alta tras desplegar); si otro nodo la creó antes, no hace nada.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO lead_number_counter (lead_type, last_value, updated_at)
+            SELECT :leadType, COALESCE(MAX(CAST(SUBSTRING(l.lead_number, 1, 3) AS integer)), 0), CURRENT_TIMESTAMP
+            FROM leads l
+            WHERE l.lead_type = :leadType
+              AND l.lead_number ~ :pattern
+            ON CONFLICT (lead_type) DO NOTHING
+            """, nativeQuery = true)
+    int seed(@Param("leadType") String leadType, @Param("pattern") String pattern);
+
+    /** Sube el contador si se guardó a mano un lead number con un prefijo mayor. */
+    @Modifying
+    @Query(value = """
+            UPDATE lead_number_counter
+            SET last_value = :value, updated_at = CURRENT_TIMESTAMP
+            WHERE lead_type = :leadType AND last_value < :value
+            """, nativeQuery = true)
+    int raiseTo(@Param("leadType") String leadType, @Param("value") int value);
+}
@@ -0,0 +1,76 @@
+package io.dav033.maroconstruction.repositories;
+
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros del listado paginado de leads. Cada método devuelve una especificación sin restricción
+ * cuando el parámetro es null, para poder combinarlos todos con {@link Specification#allOf}.
+ */
+public final class LeadSpecifications {
+
+    private LeadSpecifications() {}
+
+    /** Fetch join de contacto y tipo de proyecto (ManyToOne: no multiplica filas, el LIMIT sigue en SQL). */
+    public static Specification<LeadsEntity> withRelations() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("contact", JoinType.LEFT);
+                root.fetch("projectType", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<LeadsEntity> hasStatus(LeadStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<LeadsEntity> hasType(LeadType type) {
+        return (root, query, cb) -> type == null ? null : cb.equal(root.get("leadType"), type);
+    }
+
+    public static Specification<LeadsEntity> hasProjectType(Long projectTypeId) {
+        return (root, query, cb) -> projectTypeId == null ? null
+                : cb.equal(root.get("projectType").get("id"), projectTypeId);
+    }
+
+    public static Specification<LeadsEntity> hasContact(Long contactId) {
+        return (root, query, cb) -> contactId == null ? null
+                : cb.equal(root.get("contact").get("id"), contactId);
+    }
+
+    public static Specification<LeadsEntity> startDateBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get("startDate"), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("startDate"), from);
+            }
+            return to == null ? null : cb.lessThanOrEqualTo(root.get("startDate"), to);
+        };
+    }
+
+    /**
+     * Keyset sobre (start_date, id): filas estrictamente posteriores al último elemento de la página
+     * anterior en el orden pedido. Con el índice (start_date, id) cada página es un range scan.
+     */
+    public static Specification<LeadsEntity> after(LocalDate startDate, Long id, boolean ascending) {
+        return (root, query, cb) -> {
+            if (startDate == null || id == null) {
+                return null;
+            }
+            var date = root.<LocalDate>get("startDate");
+            var leadId = root.<Long>get("id");
+            return ascending
+                    ? cb.or(cb.greaterThan(date, startDate), cb.and(cb.equal(date, startDate), cb.greaterThan(leadId, id)))
+                    : cb.or(cb.lessThan(date, startDate), cb.and(cb.equal(date, startDate), cb.lessThan(leadId, id)));
+        };
+    }
+}
@@ -1,15 +1,21 @@
 package io.dav033.maroconstruction.repositories;
 
+import io.dav033.maroconstruction.dto.LeadListRow;
 import io.dav033.maroconstruction.enums.LeadType;
 import io.dav033.maroconstruction.models.LeadsEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LeadsRepository extends JpaRepository<LeadsEntity, Long> {
+public interface LeadsRepository extends JpaRepository<LeadsEntity, Long>, JpaSpecificationExecutor<LeadsEntity> {
 
         @Query("SELECT l FROM LeadsEntity l LEFT JOIN FETCH l.contact LEFT JOIN FETCH l.projectType")
     List<LeadsEntity> findAll();
@@ -17,6 +23,46 @@ public interface LeadsRepository extends JpaRepository<LeadsEntity, Long> {
     @Query("SELECT l FROM LeadsEntity l LEFT JOIN FETCH l.contact LEFT JOIN FETCH l.projectType WHERE l.leadType = :type")
     List<LeadsEntity> findByLeadType(@Param("type") LeadType type);
 
+    @Query("""
+            SELECT new io.dav033.maroconstruction.dto.LeadListRow(
+                l.id, l.leadNumber, l.name, l.startDate, l.location, l.status, l.leadType, l.notesJson,
+                c.id, c.name, c.occupation, c.phone, c.email, c.address, c.customer, c.client, c.notesJson,
+                pt.id, pt.name, pt.color)
+            FROM LeadsEntity l
+            LEFT JOIN l.contact c
+            LEFT JOIN l.projectType pt
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LeadListRow> streamAllListRows();
+
+    @Query("""
+            SELECT new io.dav033.maroconstruction.dto.LeadListRow(
+                l.id, l.leadNumber, l.name, l.startDate, l.location, l.status, l.leadType, l.notesJson,
+                c.id, c.name, c.occupation, c.phone, c.email, c.address, c.customer, c.client, c.notesJson,
+                pt.id, pt.name, pt.color)
+            FROM LeadsEntity l
+            LEFT JOIN l.contact c
+            LEFT JOIN l.projectType pt
+            WHERE l.leadType = :type
+            """)
+    List<LeadListRow> findListRowsByLeadType(@Param("type") LeadType type);
+
+    /**
+     * Añade una nota al final del array JSON en una sola sentencia, sin cargar ni reescribir el lead.
+     * {@code note} es un array JSON de un elemento. Vacío si el lead no existe; si no, las notas resultantes.
+     * Las conversiones explícitas valen igual con la columna en jsonb (V012) que en text (esquema de Hibernate).
+     */
+    @Query(value = """
+            UPDATE leads
+            SET notes = COALESCE(CAST(NULLIF(CAST(notes AS text), '') AS jsonb), '[]'::jsonb) || CAST(:note AS jsonb)
+            WHERE id = :id
+            RETURNING CAST(notes AS text)
+            """, nativeQuery = true)
+    Optional<String> appendNote(@Param("id") Long id, @Param("note") String note);
+
     @Query("""
             SELECT l.leadNumber
             FROM LeadsEntity l
@@ -30,6 +76,20 @@ public interface LeadsRepository extends JpaRepository<LeadsEntity, Long> {
 
   boolean existsByLeadNumberAndIdNot(String leadNumber, Long id);
 
+    /**
+     * Usa idx_leads_lead_number_prefix; el prefijo lo mantiene LeadsEntity al guardar. Las filas con el
+     * prefijo a null (sin el backfill de V010, o insertadas directamente en la base sin pasar por la entidad)
+     * se comparan por lead_number; el IS NULL también va por el índice.
+     */
+    @Query("""
+            SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END
+            FROM LeadsEntity l
+            WHERE l.leadNumberPrefix = :prefix
+               OR (l.leadNumberPrefix IS NULL
+                   AND (l.leadNumber LIKE CONCAT(:prefix, '-____') OR l.leadNumber LIKE CONCAT(:prefix, 'P-____')))
+            """)
+    boolean existsByLeadNumberPrefix(@Param("prefix") String leadNumberPrefix);
+
         @Query("""
             SELECT MAX(
                 CAST(SUBSTRING(l.leadNumber, 1, 3) AS integer)
@@ -1,11 +1,16 @@
 package io.dav033.maroconstruction.repositories;
 
+import io.dav033.maroconstruction.dto.ProjectWithLeadDTO;
 import io.dav033.maroconstruction.enums.ProjectStatus;
 import io.dav033.maroconstruction.models.ProjectEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
@@ -20,6 +25,20 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
   """)
   List<ProjectEntity> findProjectsWithLeadAndContact();
 
+  @Query("""
+    SELECT new io.dav033.maroconstruction.dto.ProjectWithLeadDTO(
+        p.id, p.projectName, p.overview, p.payments, p.projectStatus, p.invoiceStatus, p.quickbooks,
+        p.startDate, p.endDate, l.id, l.leadNumber, l.name, l.location, c.id, c.name)
+    FROM ProjectEntity p
+      JOIN p.lead l
+      LEFT JOIN l.contact c
+  """)
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryHints.STREAM_FETCH_SIZE),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<ProjectWithLeadDTO> streamProjectsWithLeadRows();
+
   @Query("SELECT COUNT(p) FROM ProjectEntity p WHERE p.lead IS NOT NULL")
   Long countProjectsWithLead();
 
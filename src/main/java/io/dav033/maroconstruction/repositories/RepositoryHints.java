@@ -0,0 +1,15 @@
+package io.dav033.maroconstruction.repositories;
+
+/**
+ * Valores compartidos por los {@code @QueryHints} de los repositorios.
+ */
+public final class RepositoryHints {
+
+    /**
+     * Filas por viaje al servidor en los métodos {@code stream*}. Con Postgres sólo tiene efecto dentro de
+     * una transacción; fuera de ella el driver lee el resultado completo.
+     */
+    public static final String STREAM_FETCH_SIZE = "500";
+
+    private RepositoryHints() {}
+}
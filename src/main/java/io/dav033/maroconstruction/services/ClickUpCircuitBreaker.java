@@ -0,0 +1,287 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.config.ClickUpResilienceProperties;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker + bulkhead para ClickUp, registrado como primer interceptor del RestTemplate.
+ * Cuenta como fallo los 5xx y los errores de I/O (los 4xx y 429 son respuestas de un servicio sano).
+ * Con el circuito abierto las llamadas fallan al instante con {@link ClickUpCallNotPermittedException};
+ * pasado clickup.resilience.open-duration-ms se dejan pasar half-open-probes sondas y, si todas
+ * responden bien, el circuito se cierra. El bulkhead limita las llamadas simultáneas para que un
+ * ClickUp lento no acapare hilos de Tomcat ni conexiones del pool; cada permiso se devuelve al cerrar
+ * la respuesta, no al recibir las cabeceras.
+ */
+@Component
+public class ClickUpCircuitBreaker implements ClientHttpRequestInterceptor {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ClickUpCircuitBreaker.class);
+
+    private final ClickUpResilienceProperties props;
+    private final Semaphore bulkhead;
+    private final Counter rejectedOpen;
+    private final Counter rejectedBulkhead;
+
+    // Ventana circular con el resultado de las últimas llamadas (true = fallo)
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public ClickUpCircuitBreaker(ClickUpResilienceProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.window = new boolean[Math.max(1, props.getSlidingWindowSize())];
+        this.bulkhead = new Semaphore(Math.max(1, props.getMaxConcurrentCalls()), true);
+        this.rejectedOpen = Counter.builder("clickup.circuit.rejected")
+                .tag("reason", "open")
+                .description("Llamadas a ClickUp rechazadas sin salir")
+                .register(meterRegistry);
+        this.rejectedBulkhead = Counter.builder("clickup.circuit.rejected")
+                .tag("reason", "bulkhead")
+                .description("Llamadas a ClickUp rechazadas sin salir")
+                .register(meterRegistry);
+        Gauge.builder("clickup.circuit.state", this, b -> b.getState().ordinal())
+                .description("Estado del circuito de ClickUp: 0 cerrado, 1 abierto, 2 semiabierto")
+                .register(meterRegistry);
+        Gauge.builder("clickup.circuit.failure.rate", this, ClickUpCircuitBreaker::failureRate)
+                .description("Porcentaje de fallos en la ventana actual")
+                .register(meterRegistry);
+        Gauge.builder("clickup.bulkhead.in.flight", this, ClickUpCircuitBreaker::inFlight)
+                .description("Llamadas a ClickUp en curso")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        boolean probe = acquirePermission(request);
+        if (!enterBulkhead()) {
+            releaseProbe(probe);
+            rejectedBulkhead.increment();
+            throw new ClickUpCallNotPermittedException("ClickUp bulkhead lleno (" + props.getMaxConcurrentCalls()
+                    + " llamadas en curso): " + request.getMethod() + " " + request.getURI().getPath(),
+                    props.getBulkheadMaxWaitMs());
+        }
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            record(probe, response.getStatusCode().is5xxServerError());
+            // El permiso sigue ocupado mientras se lee el cuerpo (streamTasks lo consume en streaming):
+            // lo libera el close() que RestTemplate hace siempre al terminar con la respuesta
+            return new BulkheadResponse(response, bulkhead);
+        } catch (IOException io) {
+            bulkhead.release();
+            record(probe, true);
+            throw io;
+        } catch (RuntimeException ex) {
+            bulkhead.release();
+            // Errores locales, no de E/S: no dicen nada de la salud de ClickUp
+            releaseProbe(probe);
+            throw ex;
+        }
+    }
+
+    /** Indica si ahora mismo se dejaría salir una llamada; el outbox lo consulta para no reclamar eventos en vano. */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openRemainingMs() == 0;
+            case HALF_OPEN -> probesInFlight < props.getHalfOpenProbes();
+        };
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Milisegundos hasta que el circuito abierto admita sondas (0 si no está abierto). */
+    public synchronized long openRemainingMs() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAtNanos);
+        return Math.max(0, props.getOpenDurationMs() - elapsedMs);
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state);
+        snapshot.put("failureRate", failureRate());
+        snapshot.put("bufferedCalls", windowCount);
+        snapshot.put("failedCalls", windowFailures);
+        snapshot.put("openRemainingMs", openRemainingMs());
+        snapshot.put("inFlight", inFlight());
+        snapshot.put("maxConcurrentCalls", props.getMaxConcurrentCalls());
+        return snapshot;
+    }
+
+    /** Cierra el circuito a mano (endpoint de actuator), p. ej. tras confirmar que ClickUp se ha recuperado. */
+    public synchronized void reset() {
+        transitionTo(State.CLOSED);
+    }
+
+    private synchronized boolean acquirePermission(HttpRequest request) {
+        if (state == State.OPEN && openRemainingMs() == 0) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && probesInFlight < props.getHalfOpenProbes()) {
+            probesInFlight++;
+            return true;
+        }
+        rejectedOpen.increment();
+        long retryAfterMs = state == State.OPEN ? openRemainingMs() : props.getOpenDurationMs();
+        throw new ClickUpCallNotPermittedException("ClickUp circuito " + state + ": " + request.getMethod()
+                + " " + request.getURI().getPath() + " rechazada", retryAfterMs);
+    }
+
+    private boolean enterBulkhead() {
+        try {
+            return bulkhead.tryAcquire(props.getBulkheadMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized void releaseProbe(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    private synchronized void record(boolean probe, boolean failure) {
+        if (state == State.HALF_OPEN) {
+            if (!probe) {
+                return;
+            }
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (failure) {
+                transitionTo(State.OPEN);
+            } else if (++probeSuccesses >= props.getHalfOpenProbes()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Llamadas que salieron antes de abrirse el circuito
+            return;
+        }
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+        if (windowCount >= props.getMinimumCalls() && failureRate() >= props.getFailureRateThreshold()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        switch (next) {
+            case OPEN -> {
+                openedAtNanos = System.nanoTime();
+                log.warn("ClickUp circuito {} -> OPEN ({}% de fallos en {} llamadas). Se reintenta en {}ms",
+                        state, Math.round(failureRate()), windowCount, props.getOpenDurationMs());
+            }
+            case HALF_OPEN -> log.info("ClickUp circuito OPEN -> HALF_OPEN: enviando hasta {} sondas",
+                    props.getHalfOpenProbes());
+            case CLOSED -> log.info("ClickUp circuito {} -> CLOSED", state);
+        }
+        state = next;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    private synchronized double failureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100.0 / windowCount;
+    }
+
+    private int inFlight() {
+        return Math.max(1, props.getMaxConcurrentCalls()) - bulkhead.availablePermits();
+    }
+
+    /** Respuesta que devuelve su permiso del bulkhead al cerrarse, una sola vez aunque se cierre varias. */
+    static final class BulkheadResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        BulkheadResponse(ClientHttpResponse delegate, Semaphore bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
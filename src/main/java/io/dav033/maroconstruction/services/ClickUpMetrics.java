@@ -0,0 +1,80 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timer clickup.operation por operación de ClickUpService (create, list, update, field, delete), con tags
+ * leadType y outcome. Mide la operación completa, reintentos y esperas de rate limit incluidos, y publica
+ * histograma para poder sacar p99 en Prometheus. Las excepciones se relanzan sin tocar.
+ */
+@Component
+public class ClickUpMetrics {
+
+    static final String TIMER = "clickup.operation";
+    private static final String NO_TYPE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ClickUpMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, LeadType type, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            timer(operation, type, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(String operation, LeadType type, Runnable call) {
+        record(operation, type, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String operation, LeadType type, String outcome) {
+        return Timer.builder(TIMER)
+                .description("Duración de las operaciones contra la API de ClickUp")
+                .tag("operation", operation)
+                .tag("leadType", type != null ? type.name() : NO_TYPE)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Clasifica el fallo recorriendo la cadena de causas (ClickUpService envuelve los errores de RestTemplate). */
+    static String outcome(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ClickUpCallNotPermittedException) {
+                return "rejected";
+            }
+            if (t instanceof HttpStatusCodeException http) {
+                int status = http.getStatusCode().value();
+                if (status == 429) {
+                    return "rate_limited";
+                }
+                return status >= 500 ? "server_error" : "client_error";
+            }
+            if (t instanceof ResourceAccessException) {
+                return "io_error";
+            }
+        }
+        return "error";
+    }
+}
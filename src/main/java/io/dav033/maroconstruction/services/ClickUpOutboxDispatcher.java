@@ -0,0 +1,262 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.config.ClickUpOutboxProperties;
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.dav033.maroconstruction.exceptions.ClickUpException;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.ClickUpOutboxEntity;
+import io.dav033.maroconstruction.repositories.ClickUpOutboxRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vacía clickup_outbox en segundo plano: reclama lotes con FOR UPDATE SKIP LOCKED, los envía a ClickUp
+ * con {@code clickup.outbox.parallelism} hilos y reprograma los fallos con backoff exponencial hasta
+ * {@code clickup.outbox.max-attempts}; a partir de ahí el evento queda en DEAD para revisión manual.
+ * Con el circuito de ClickUp abierto no se reclaman eventos, y los rechazados por el circuito o el
+ * bulkhead se aplazan sin consumir intentos.
+ * Es {@code @Lazy(false)} porque la aplicación arranca con lazy-initialization y el scheduler sólo ve
+ * beans ya creados.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "clickup.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClickUpOutboxDispatcher {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ClickUpOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final ClickUpOutboxRepository repository;
+    private final LeadsRepository leadsRepository;
+    private final LeadsMapper leadsMapper;
+    private final LeadClickUpSyncService syncService;
+    private final ClickUpCircuitBreaker circuitBreaker;
+    private final ClickUpOutboxProperties props;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final ExecutorService workers;
+
+    public ClickUpOutboxDispatcher(ClickUpOutboxRepository repository,
+                                   LeadsRepository leadsRepository,
+                                   LeadsMapper leadsMapper,
+                                   LeadClickUpSyncService syncService,
+                                   ClickUpCircuitBreaker circuitBreaker,
+                                   ClickUpOutboxProperties props,
+                                   PlatformTransactionManager transactionManager,
+                                   Environment environment) {
+        this.repository = repository;
+        this.leadsRepository = leadsRepository;
+        this.leadsMapper = leadsMapper;
+        this.syncService = syncService;
+        this.circuitBreaker = circuitBreaker;
+        this.props = props;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        // El pool sigue siendo fijo para acotar la concurrencia contra ClickUp; con hilos virtuales sólo
+        // cambia el tipo de hilo, que deja de ocupar un hilo de plataforma mientras espera la red
+        this.workers = Executors.newFixedThreadPool(Math.max(1, props.getParallelism()), workerFactory(environment));
+    }
+
+    private static ThreadFactory workerFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Thread.ofVirtual().name("clickup-outbox-", 1).factory();
+        }
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "clickup-outbox-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @Scheduled(initialDelayString = "${clickup.outbox.poll-interval-ms:2000}",
+               fixedDelayString = "${clickup.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            releaseStaleClaims();
+            List<ClickUpOutboxEntity> batch;
+            do {
+                if (!circuitBreaker.isCallPermitted()) {
+                    log.debug("Outbox ClickUp: circuito {}, despacho aplazado", circuitBreaker.getState());
+                    return;
+                }
+                batch = claimBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Callable<Void>> jobs = batch.stream()
+                        .map(event -> (Callable<Void>) () -> {
+                            process(event);
+                            return null;
+                        })
+                        .toList();
+                workers.invokeAll(jobs);
+            } while (batch.size() >= props.getBatchSize());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.error("Outbox ClickUp: error en el ciclo de despacho: {}", ex.getMessage(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void purgeDelivered() {
+        LocalDateTime before = LocalDateTime.now().minusHours(props.getDoneRetentionHours());
+        Integer purged = tx.execute(status -> repository.deleteByStatusOlderThan(OutboxStatus.DONE, before));
+        if (purged != null && purged > 0) {
+            log.info("Outbox ClickUp: {} eventos entregados purgados", purged);
+        }
+    }
+
+    private void releaseStaleClaims() {
+        LocalDateTime lockedBefore = LocalDateTime.now().minusNanos(props.getClaimTimeoutMs() * 1_000_000L);
+        Integer released = tx.execute(status ->
+                repository.releaseStaleClaims(OutboxStatus.PENDING, OutboxStatus.IN_PROGRESS, lockedBefore));
+        if (released != null && released > 0) {
+            log.warn("Outbox ClickUp: {} eventos IN_PROGRESS abandonados vuelven a PENDING", released);
+        }
+    }
+
+    private List<ClickUpOutboxEntity> claimBatch() {
+        List<ClickUpOutboxEntity> batch = tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ClickUpOutboxEntity> locked = repository.lockNextBatch(now, props.getBatchSize());
+            for (ClickUpOutboxEntity event : locked) {
+                event.setStatus(OutboxStatus.IN_PROGRESS);
+                event.setLockedAt(now);
+                event.setAttempts(event.getAttempts() + 1);
+            }
+            return locked;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void process(ClickUpOutboxEntity event) {
+        try {
+            deliver(event);
+            finish(event.getId(), OutboxStatus.DONE, null, null);
+        } catch (Exception ex) {
+            fail(event, ex);
+        }
+    }
+
+    private void deliver(ClickUpOutboxEntity event) {
+        switch (event.getOperation()) {
+            case CREATE -> loadLead(event.getLeadId()).ifPresentOrElse(
+                    syncService::pushLeadCreate,
+                    () -> log.info("Outbox ClickUp: lead {} ya no existe, se omite CREATE", event.getLeadId()));
+            case UPDATE -> loadLead(event.getLeadId()).ifPresentOrElse(
+                    syncService::pushLeadUpdate,
+                    () -> log.info("Outbox ClickUp: lead {} ya no existe, se omite UPDATE", event.getLeadId()));
+            case DELETE -> {
+                Leads lead = new Leads();
+                lead.setId(event.getLeadId());
+                lead.setLeadNumber(event.getLeadNumber());
+                lead.setLeadType(event.getLeadType());
+                var result = syncService.syncLeadDelete(lead);
+                if (!result.isSuccessful()) {
+                    // syncLeadDelete devuelve el error como diagnóstico: si el circuito está cerrado a ClickUp, se aplaza
+                    if (!circuitBreaker.isCallPermitted()) {
+                        throw new ClickUpCallNotPermittedException("ClickUp delete " + result.getStatus()
+                                + " con circuito " + circuitBreaker.getState(), circuitBreaker.openRemainingMs());
+                    }
+                    throw new ClickUpException("ClickUp delete " + result.getStatus() + ": " + result.getDiagnosis());
+                }
+            }
+        }
+    }
+
+    private Optional<Leads> loadLead(Long leadId) {
+        return readTx.execute(status -> leadsRepository.findByIdWithRelations(leadId).map(leadsMapper::toDto));
+    }
+
+    private void fail(ClickUpOutboxEntity event, Exception ex) {
+        ClickUpCallNotPermittedException notPermitted = findNotPermitted(ex);
+        if (notPermitted != null) {
+            long delayMs = Math.max(notPermitted.getRetryAfterMs(), props.getPollIntervalMs());
+            log.debug("Outbox ClickUp: {} de lead {} aplazado {}ms: {}",
+                    event.getOperation(), event.getLeadId(), delayMs, notPermitted.getMessage());
+            defer(event.getId(), LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+            return;
+        }
+        boolean dead = event.getAttempts() >= props.getMaxAttempts();
+        String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (dead) {
+            log.error("Outbox ClickUp: {} de lead {} ({}) pasa a DEAD tras {} intentos: {}",
+                    event.getOperation(), event.getLeadId(), event.getLeadNumber(), event.getAttempts(), error);
+            finish(event.getId(), OutboxStatus.DEAD, null, error);
+        } else {
+            long delayMs = backoffMs(event.getAttempts());
+            log.warn("Outbox ClickUp: {} de lead {} falló (intento {} de {}). Reintento en {}ms: {}",
+                    event.getOperation(), event.getLeadId(), event.getAttempts(), props.getMaxAttempts(), delayMs, error);
+            finish(event.getId(), OutboxStatus.PENDING, LocalDateTime.now().plusNanos(delayMs * 1_000_000L), error);
+        }
+    }
+
+    private static ClickUpCallNotPermittedException findNotPermitted(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ClickUpCallNotPermittedException notPermitted) {
+                return notPermitted;
+            }
+        }
+        return null;
+    }
+
+    private long backoffMs(int attempts) {
+        long base = props.getInitialBackoffMs() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(base, props.getMaxBackoffMs());
+        // Jitter de ±20% para que los reintentos de varios eventos no coincidan
+        long jitter = (long) (capped * 0.2 * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        return Math.max(0, capped + jitter);
+    }
+
+    private void finish(Long id, OutboxStatus status, LocalDateTime nextAttemptAt, String error) {
+        tx.executeWithoutResult(s -> repository.findById(id).ifPresent(event -> {
+            event.setStatus(status);
+            event.setLockedAt(null);
+            if (nextAttemptAt != null) {
+                event.setNextAttemptAt(nextAttemptAt);
+            }
+            event.setLastError(error);
+        }));
+    }
+
+    /** Devuelve el evento a PENDING sin contar el intento: la llamada ni siquiera salió hacia ClickUp. */
+    private void defer(Long id, LocalDateTime nextAttemptAt) {
+        tx.executeWithoutResult(s -> repository.findById(id).ifPresent(event -> {
+            event.setStatus(OutboxStatus.PENDING);
+            event.setLockedAt(null);
+            event.setAttempts(Math.max(0, event.getAttempts() - 1));
+            event.setNextAttemptAt(nextAttemptAt);
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
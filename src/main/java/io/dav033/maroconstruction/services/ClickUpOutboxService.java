@@ -0,0 +1,49 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.enums.ClickUpSyncOperation;
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import io.dav033.maroconstruction.models.ClickUpOutboxEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.repositories.ClickUpOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Registra en clickup_outbox los cambios de leads que deben llegar a ClickUp. Se escribe dentro de la
+ * misma transacción que el cambio del lead; el envío real lo hace {@link ClickUpOutboxDispatcher}.
+ */
+@Service
+public class ClickUpOutboxService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ClickUpOutboxService.class);
+
+    private final ClickUpOutboxRepository repository;
+
+    public ClickUpOutboxService(ClickUpOutboxRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(ClickUpSyncOperation operation, LeadsEntity lead) {
+        ClickUpOutboxEntity event = new ClickUpOutboxEntity();
+        event.setLeadId(lead.getId());
+        event.setLeadNumber(lead.getLeadNumber());
+        event.setLeadType(lead.getLeadType());
+        event.setOperation(operation);
+        event.setStatus(OutboxStatus.PENDING);
+        repository.save(event);
+        log.debug("Outbox ClickUp: {} encolado para lead {} ({})", operation, lead.getId(), lead.getLeadNumber());
+    }
+
+    /** Variante sin entidad cargada; el despachador lee el lead al entregar el evento. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(ClickUpSyncOperation operation, Long leadId) {
+        ClickUpOutboxEntity event = new ClickUpOutboxEntity();
+        event.setLeadId(leadId);
+        event.setOperation(operation);
+        event.setStatus(OutboxStatus.PENDING);
+        repository.save(event);
+        log.debug("Outbox ClickUp: {} encolado para lead {}", operation, leadId);
+    }
+}
@@ -0,0 +1,180 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.config.ClickUpHttpProperties;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.dav033.maroconstruction.exceptions.ClickUpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket compartido por todas las llamadas a ClickUp (se registra como interceptor del RestTemplate).
+ * Arranca con clickup.http.rate-limit-per-minute y se ajusta con las cabeceras X-RateLimit-* de cada respuesta;
+ * ante un 429 pausa a todos los llamadores hasta Retry-After / X-RateLimit-Reset. Si la espera necesaria supera
+ * clickup.http.rate-limit-max-wait-ms la llamada se descarta con ClickUpCallNotPermittedException en vez de encolarse.
+ */
+@Component
+public class ClickUpRateLimiter implements ClientHttpRequestInterceptor {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ClickUpRateLimiter.class);
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long DEFAULT_429_PAUSE_MS = 1000;
+
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Counter rejected;
+    private final Counter throttled;
+
+    private double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private volatile long serverRemaining = -1;
+
+    public ClickUpRateLimiter(ClickUpHttpProperties props, MeterRegistry meterRegistry) {
+        this.capacity = Math.max(1, props.getRateLimitPerMinute());
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(props.getRateLimitMaxWaitMs());
+        this.waitTimer = Timer.builder("clickup.ratelimit.wait")
+                .description("Tiempo esperando presupuesto de rate limit antes de llamar a ClickUp")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("clickup.ratelimit.rejected")
+                .description("Llamadas descartadas por superar la espera máxima de rate limit")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("clickup.ratelimit.throttled")
+                .description("Respuestas 429 recibidas de ClickUp")
+                .register(meterRegistry);
+        Gauge.builder("clickup.ratelimit.budget", this, ClickUpRateLimiter::availableTokens)
+                .description("Tokens disponibles en el bucket local")
+                .register(meterRegistry);
+        Gauge.builder("clickup.ratelimit.remaining", this, l -> l.serverRemaining)
+                .description("Último X-RateLimit-Remaining informado por ClickUp (-1 si se desconoce)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        acquire(request);
+        ClientHttpResponse response = execution.execute(request, body);
+        onResponse(response.getStatusCode().value(), response.getHeaders());
+        return response;
+    }
+
+    void acquire(HttpRequest request) {
+        long waitNanos = reserve();
+        if (waitNanos > maxWaitNanos) {
+            cancelReservation();
+            rejected.increment();
+            // Descarte local: la llamada no salió, así que el outbox la aplaza sin gastar un intento
+            long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+            throw new ClickUpCallNotPermittedException("ClickUp rate limit: presupuesto agotado, espera estimada "
+                    + waitMs + "ms para " + request.getMethod() + " " + request.getURI().getPath(), waitMs);
+        }
+        if (waitNanos > 0) {
+            log.debug("ClickUp rate limit: esperando {}ms antes de {} {}", TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                    request.getMethod(), request.getURI().getPath());
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelReservation();
+                throw new ClickUpException("Interrumpido esperando rate limit de ClickUp", e);
+            }
+        }
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Milisegundos que faltan para que termine la pausa impuesta por el último 429 (0 si no hay pausa). */
+    public synchronized long pauseRemainingMs() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime()));
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        tokens -= 1;
+        long wait = Math.max(0, pausedUntilNanos - now);
+        if (tokens < 0) {
+            // Tokens negativos = reservas en cola; cada una espera a que el bucket se rellene
+            wait = Math.max(wait, (long) (-tokens * WINDOW_NANOS / capacity));
+        }
+        return wait;
+    }
+
+    private synchronized void cancelReservation() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private synchronized void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * capacity / WINDOW_NANOS);
+            lastRefillNanos = now;
+        }
+    }
+
+    private synchronized double availableTokens() {
+        refill(System.nanoTime());
+        return Math.max(0, tokens);
+    }
+
+    synchronized void onResponse(int status, HttpHeaders headers) {
+        long now = System.nanoTime();
+        Long limit = longHeader(headers, "X-RateLimit-Limit");
+        Long remaining = longHeader(headers, "X-RateLimit-Remaining");
+        Long resetEpochSeconds = longHeader(headers, "X-RateLimit-Reset");
+        if (limit != null && limit > 0 && limit != (long) capacity) {
+            log.info("ClickUp rate limit: capacidad ajustada de {} a {} req/min", (long) capacity, limit);
+            capacity = limit;
+            tokens = Math.min(tokens, capacity);
+        }
+        if (remaining != null) {
+            serverRemaining = remaining;
+            // El servidor conoce el consumo de otros nodos/tokens: nunca creer que queda más de lo que dice
+            refill(now);
+            tokens = Math.min(tokens, remaining);
+        }
+        long resetDelayMs = resetEpochSeconds != null
+                ? Math.max(0, resetEpochSeconds * 1000 - System.currentTimeMillis())
+                : -1;
+        if (status == 429) {
+            throttled.increment();
+            Long retryAfterSeconds = longHeader(headers, HttpHeaders.RETRY_AFTER);
+            long pauseMs = retryAfterSeconds != null ? retryAfterSeconds * 1000
+                    : resetDelayMs >= 0 ? resetDelayMs
+                    : DEFAULT_429_PAUSE_MS;
+            pauseUntil(now, pauseMs);
+            log.warn("ClickUp 429: pausando llamadas {}ms", pauseMs);
+        } else if (remaining != null && remaining <= 0 && resetDelayMs > 0) {
+            pauseUntil(now, resetDelayMs);
+        }
+    }
+
+    private void pauseUntil(long now, long pauseMs) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(pauseMs));
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package io.dav033.maroconstruction.services;
 
 import io.dav033.maroconstruction.config.ClickUpConfig;
+import io.dav033.maroconstruction.config.ClickUpHttpProperties;
 import io.dav033.maroconstruction.config.ClickUpRoutingService;
 import io.dav033.maroconstruction.enums.LeadType;
 import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
 import io.dav033.maroconstruction.dto.webhook.ClickUpTaskResponse;
 import io.dav033.maroconstruction.dto.webhook.ClickUpTaskListResponse;
 import io.dav033.maroconstruction.exceptions.ClickUpException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.annotation.PreDestroy;
 
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -27,85 +45,245 @@ public class ClickUpService {
     private final RestTemplate restTemplate;
     private final ClickUpConfig config;
     private final ClickUpRoutingService routingService;
+    // Escrituras de custom fields en paralelo: un hilo virtual por campo, acotado por fieldPermits
+    private final ExecutorService fieldExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore fieldPermits;
+    private final ClickUpRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final ClickUpMetrics metrics;
     public ClickUpService(ClickUpUrlBuilder urlBuilder,
                           ClickUpHeadersProvider headersProvider,
                           RestTemplate restTemplate,
                           ClickUpConfig config,
-                          ClickUpRoutingService routingService) {
+                          ClickUpRoutingService routingService,
+                          ClickUpHttpProperties httpProperties,
+                          ClickUpRateLimiter rateLimiter,
+                          ObjectMapper objectMapper,
+                          ClickUpMetrics metrics) {
         this.urlBuilder = urlBuilder;
         this.headersProvider = headersProvider;
         this.restTemplate = restTemplate;
         this.config = config;
         this.routingService = routingService;
+        this.fieldPermits = new Semaphore(Math.max(1, httpProperties.getFieldWriteConcurrency()));
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fieldExecutor.shutdown();
     }
 
     public ClickUpTaskResponse createTask(LeadType type, ClickUpTaskRequest taskRequest) {
         validateConfigured();
         validateTaskRequest(taskRequest);
-        var listId = routingService.route(type).getListId();
-        return execute("create task", () -> {
+        var listId = routingService.getListId(type);
+        return metrics.record("create", type, () -> execute("create task", () -> {
             String url = urlBuilder.buildUrl("list", listId, "task");
             HttpEntity<ClickUpTaskRequest> entity = new HttpEntity<>(taskRequest, headersProvider.get());
             log.info("Creando tarea en ClickUp: {} para tipo {}", taskRequest.getName(), type);
             logCustomFields(taskRequest.getCustomFields());
             return restTemplate.postForObject(url, entity, ClickUpTaskResponse.class);
-        });
+        }));
     }
     public List<ClickUpTaskListResponse.ClickUpTaskSummary> listTasks(LeadType type) {
-        var listId = routingService.route(type).getListId();
-        return execute("list tasks", () -> {
-            String url = urlBuilder.buildUrl("list", listId, "task");
-            HttpEntity<Void> entity = new HttpEntity<>(headersProvider.get());
-            ClickUpTaskListResponse resp = restTemplate.exchange(url, HttpMethod.GET, entity, ClickUpTaskListResponse.class).getBody();
-            return resp == null ? List.of() : resp.getTasks();
-        });
+        var listId = routingService.getListId(type);
+        return streamTasks(listId, null, null).toList();
     }
+
     public String findTaskIdByLeadNumber(LeadType type, String leadNumber) {
-        var route = routingService.route(type);
-        var fields = route.getFields();
-        var fieldId = fields != null ? fields.getLeadNumberId() : null;
-        return listTasks(type).stream()
-            .filter(t -> t.getCustomFields() != null)
-            .filter(t -> fieldId != null && t.getCustomFields().stream()
-                .anyMatch(f -> fieldId.equals(f.getId()) && leadNumber.equals(String.valueOf(f.getValue()))))
+        var listId = routingService.getListId(type);
+        var fieldId = routingService.resolveLeadNumberFieldId(type);
+        return findTasksByCustomField(listId, fieldId, leadNumber, true).stream()
             .map(ClickUpTaskListResponse.ClickUpTaskSummary::getId)
             .findFirst().orElse(null);
     }
+
+    /**
+     * Tareas de la lista cuyo custom field {@code fieldId} vale {@code value}. Se filtra en ClickUp con
+     * {@code custom_fields}; si ClickUp rechaza el filtro (400, p. ej. por el tipo del campo) se recorren
+     * las páginas comparando en local. Con {@code firstOnly} se deja de paginar en la primera coincidencia.
+     */
+    public List<ClickUpTaskListResponse.ClickUpTaskSummary> findTasksByCustomField(String listId, String fieldId,
+                                                                                  String value, boolean firstOnly) {
+        if (fieldId == null || value == null) {
+            return List.of();
+        }
+        try {
+            return matching(streamTasks(listId, customFieldFilter(fieldId, value), Set.of(fieldId)), fieldId, value, firstOnly);
+        } catch (ClickUpException ex) {
+            if (!(ex.getCause() instanceof org.springframework.web.client.HttpClientErrorException.BadRequest)) {
+                throw ex;
+            }
+            log.warn("ClickUp rechazó el filtro custom_fields en listId={} fieldId={}; recorriendo páginas", listId, fieldId);
+            return matching(streamTasks(listId, null, Set.of(fieldId)), fieldId, value, firstOnly);
+        }
+    }
+
+    /**
+     * Tareas de la lista, página a página y bajo demanda: la siguiente página sólo se pide cuando el
+     * consumidor agota la actual, así que {@code findFirst}/{@code limit}/{@code anyMatch} cortan la
+     * paginación. Cada página se parsea en streaming quedándose con id, name, url y los custom fields
+     * de {@code fieldIds} (null = todos), de modo que la memoria no crece con el tamaño de la lista.
+     */
+    public Stream<ClickUpTaskListResponse.ClickUpTaskSummary> streamTasks(String listId, String customFieldsFilter,
+                                                                          Set<String> fieldIds) {
+        Spliterator<ClickUpTaskListResponse.ClickUpTaskSummary> pages =
+                new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int page;
+            private boolean last;
+            private Iterator<ClickUpTaskListResponse.ClickUpTaskSummary> current = Collections.emptyIterator();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super ClickUpTaskListResponse.ClickUpTaskSummary> action) {
+                while (!current.hasNext()) {
+                    if (last) {
+                        return false;
+                    }
+                    ClickUpTaskPageParser.Page next = fetchTaskPage(listId, page++, customFieldsFilter, fieldIds);
+                    last = next.lastPage() || next.tasks().isEmpty();
+                    current = next.tasks().iterator();
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+
+    private ClickUpTaskPageParser.Page fetchTaskPage(String listId, int page, String customFieldsFilter, Set<String> fieldIds) {
+        return metrics.record("list", routingService.typeOfList(listId), () -> execute("list tasks", () -> {
+            var uri = urlBuilder.listTasksPage(listId, page, customFieldsFilter);
+            HttpHeaders headers = headersProvider.get();
+            ClickUpTaskPageParser.Page result = restTemplate.execute(uri, HttpMethod.GET,
+                    request -> request.getHeaders().putAll(headers),
+                    response -> {
+                        try (var parser = objectMapper.createParser(response.getBody())) {
+                            return ClickUpTaskPageParser.parse(parser, fieldIds);
+                        }
+                    });
+            log.debug("ClickUp list {} página {}: {} tareas", listId, page, result == null ? 0 : result.tasks().size());
+            return result != null ? result : new ClickUpTaskPageParser.Page(List.of(), true);
+        }));
+    }
+
+    private static List<ClickUpTaskListResponse.ClickUpTaskSummary> matching(
+            Stream<ClickUpTaskListResponse.ClickUpTaskSummary> tasks, String fieldId, String value, boolean firstOnly) {
+        var matches = tasks.filter(t -> hasFieldValue(t, fieldId, value));
+        return firstOnly ? matches.limit(1).toList() : matches.toList();
+    }
+
+    private String customFieldFilter(String fieldId, String value) {
+        try {
+            return objectMapper.writeValueAsString(List.of(Map.of("field_id", fieldId, "operator", "=", "value", value)));
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new ClickUpException("No se pudo serializar el filtro custom_fields", e);
+        }
+    }
+
+    private static boolean hasFieldValue(ClickUpTaskListResponse.ClickUpTaskSummary task, String fieldId, String value) {
+        return task.getCustomFields() != null && task.getCustomFields().stream()
+            .anyMatch(f -> fieldId.equals(f.getId()) && value.equals(String.valueOf(f.getValue())));
+    }
+
     public boolean deleteTaskByLeadNumber(LeadType type, String leadNumber) {
         var id = findTaskIdByLeadNumber(type, leadNumber);
-        return id != null && deleteTask(id);
+        return id != null && deleteTask(type, id);
     }
 
-    public boolean deleteTask(String taskId) {
+    /** {@code type} sólo etiqueta la métrica; puede ser null si la tarea se localizó en cualquier lista. */
+    public boolean deleteTask(LeadType type, String taskId) {
         validateConfigured();
         validateTaskId(taskId);
 
-        execute("delete task", () -> {
+        metrics.record("delete", type, () -> execute("delete task", () -> {
             String url = urlBuilder.buildDeleteTaskUrl(taskId);
             HttpEntity<Void> entity = new HttpEntity<>(headersProvider.get());
             restTemplate.exchange(url, HttpMethod.DELETE, entity, Void.class);
             return null;
-        });
+        }));
         log.info("Tarea eliminada con éxito en ClickUp → id={}", taskId);
         return true;
     }
 
-    public void updateTask(String taskId, ClickUpTaskRequest request) {
+    public void updateTask(LeadType type, String taskId, ClickUpTaskRequest request) {
         java.net.URI uri = java.net.URI.create(urlBuilder.buildUpdateTaskUrl(taskId));
         org.springframework.http.HttpEntity<ClickUpTaskRequest> entity = new org.springframework.http.HttpEntity<>(request, headersProvider.get());
 
-        org.springframework.http.ResponseEntity<String> res = exchangeWithRetry(uri, org.springframework.http.HttpMethod.PUT, entity);
-        ensure2xx("PUT", uri, res);
+        metrics.record("update", type, () -> {
+            org.springframework.http.ResponseEntity<String> res = exchangeWithRetry(uri, org.springframework.http.HttpMethod.PUT, entity);
+            ensure2xx("PUT", uri, res);
+        });
         if (request.getCustomFields() != null && !request.getCustomFields().isEmpty()) {
-            request.getCustomFields().forEach(field -> {
-                java.net.URI furi = java.net.URI.create(urlBuilder.buildUpdateCustomFieldsUrl(taskId) + "/" + field.getId());
-                java.util.Map<String, Object> payload = new java.util.HashMap<>();
-                payload.put("value", field.getValue()); 
-                org.springframework.http.HttpEntity<java.util.Map<String,Object>> fe = new org.springframework.http.HttpEntity<>(payload, headersProvider.get());
-                org.springframework.http.ResponseEntity<String> fres = exchangeWithRetry(furi, org.springframework.http.HttpMethod.POST, fe);
-                ensure2xx("POST", furi, fres);
-            });
+            writeCustomFields(type, taskId, request.getCustomFields());
+        }
+    }
+
+    /**
+     * Envía los custom fields de una tarea en paralelo (como mucho clickup.http.field-write-concurrency a la vez
+     * en toda la aplicación). Espera a todos y, si alguno falla, lanza una única ClickUpException con el detalle
+     * de cada campo; el resto de errores queda como suppressed. Si todos fallan con 404 se relanza el
+     * NotFound, igual que cuando sólo hay un campo.
+     */
+    private void writeCustomFields(LeadType type, String taskId, List<ClickUpTaskRequest.CustomField> fields) {
+        if (fields.size() == 1) {
+            postCustomField(type, taskId, fields.get(0));
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(fields.size());
+        for (ClickUpTaskRequest.CustomField field : fields) {
+            futures.add(fieldExecutor.submit(() -> {
+                fieldPermits.acquire();
+                try {
+                    postCustomField(type, taskId, field);
+                } finally {
+                    fieldPermits.release();
+                }
+                return null;
+            }));
+        }
+        List<String> failures = new ArrayList<>();
+        List<Throwable> causes = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException ee) {
+                Throwable cause = ee.getCause() != null ? ee.getCause() : ee;
+                failures.add(fields.get(i).getId() + ": " + cause.getMessage());
+                causes.add(cause);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new ClickUpException("Interrumpido actualizando custom fields de la tarea " + taskId, ie);
+            }
         }
+        if (!causes.isEmpty() && causes.stream().allMatch(c -> c instanceof org.springframework.web.client.HttpClientErrorException.NotFound)) {
+            // La tarea no existe: mismo error que con un solo campo, para que el llamador repare el mapeo
+            log.warn("ClickUp: 404 en los {} custom fields de la tarea {}", causes.size(), taskId);
+            RuntimeException notFound = (RuntimeException) causes.get(0);
+            causes.stream().skip(1).forEach(notFound::addSuppressed);
+            throw notFound;
+        }
+        if (!causes.isEmpty()) {
+            log.error("ClickUp: fallaron {} de {} custom fields en la tarea {}: {}", causes.size(), fields.size(), taskId, failures);
+            ClickUpException error = new ClickUpException(
+                    "ClickUp update custom fields failed (" + causes.size() + "/" + fields.size() + "): " + failures, causes.get(0));
+            causes.stream().skip(1).forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    private void postCustomField(LeadType type, String taskId, ClickUpTaskRequest.CustomField field) {
+        java.net.URI furi = java.net.URI.create(urlBuilder.buildUpdateCustomFieldsUrl(taskId) + "/" + field.getId());
+        java.util.Map<String, Object> payload = new java.util.HashMap<>();
+        payload.put("value", field.getValue());
+        org.springframework.http.HttpEntity<java.util.Map<String,Object>> fe = new org.springframework.http.HttpEntity<>(payload, headersProvider.get());
+        metrics.record("field", type, () -> {
+            org.springframework.http.ResponseEntity<String> fres = exchangeWithRetry(furi, org.springframework.http.HttpMethod.POST, fe);
+            ensure2xx("POST", furi, fres);
+        });
     }
     private org.springframework.http.ResponseEntity<String> exchangeWithRetry(java.net.URI uri, org.springframework.http.HttpMethod method, org.springframework.http.HttpEntity<?> entity) {
         int attempts = 0;
@@ -115,7 +293,13 @@ public class ClickUpService {
                 return restTemplate.exchange(uri, method, entity, String.class);
             } catch (org.springframework.web.client.HttpStatusCodeException e) {
                 int status = e.getStatusCode().value();
-                if ((status == 429 || status >= 500) && attempts < 3) {
+                if (status == 429 && attempts < 3) {
+                    // El rate limiter ya registró Retry-After / X-RateLimit-Reset: el siguiente intento espera ahí
+                    log.warn("ClickUp {} {} -> 429. Reintentando tras la pausa del rate limiter ({}ms, {} de 2)",
+                             method, uri, rateLimiter.pauseRemainingMs(), attempts);
+                    continue;
+                }
+                if (status >= 500 && attempts < 3) {
                     long backoffMs = attempts * 500L;
                     log.warn("ClickUp {} {} -> {}. Reintentando en {}ms ({} de 2). Body: {}",
                              method, uri, status, backoffMs, attempts, safe(e.getResponseBodyAsString()));
@@ -146,59 +330,48 @@ public class ClickUpService {
     }
 
     private static String safe(String s) { return s == null ? "" : s.substring(0, Math.min(400, s.length())); }
-    private static void sleep(long ms) { try { Thread.sleep(ms); } catch (InterruptedException ignored) {} }
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            // Se conserva la interrupción para que el apagado del ejecutor (virtual o no) la vea
+            Thread.currentThread().interrupt();
+        }
+    }
 
     public boolean deleteTaskByLeadNumber(String leadNumber) {
         log.debug("Buscando tarea para eliminar por lead_number: {}", leadNumber);
         String taskId = findTaskIdByLeadNumber(leadNumber);
-        return taskId != null && deleteTask(taskId);
+        return taskId != null && deleteTask(null, taskId);
     }
 
+    /**
+     * Busca la tarea en todas las listas configuradas, cada una con su propio field id de lead number.
+     */
     public String findTaskIdByLeadNumber(String leadNumber) {
         validateConfigured();
-        return execute("find task by lead number", () -> {
-            String url = urlBuilder.buildGetTasksUrl();
-            HttpEntity<Void> entity = new HttpEntity<>(headersProvider.get());
-            ClickUpTaskListResponse list = restTemplate
-                    .exchange(url, HttpMethod.GET, entity, ClickUpTaskListResponse.class).getBody();
-            if (list == null || list.getTasks() == null)
-                return null;
-            return list.getTasks().stream()
-                    .filter(t -> t.getCustomFields() != null)
-                    .filter(t -> t.getCustomFields().stream()
-                            .anyMatch(f -> "53d6e312-0f63-40ba-8f87-1f3092d8b322".equals(f.getId())
-                                    && leadNumber.equals(String.valueOf(f.getValue()))))
-                    .map(ClickUpTaskListResponse.ClickUpTaskSummary::getId)
-                    .findFirst()
-                    .orElse(null);
-        });
+        return findTaskIdByLeadNumberInAnyList(leadNumber).orElse(null);
     }
 
     public boolean isConfigured() {
         boolean urlOk = urlBuilder.isConfigured();
-        boolean routingOk = false;
-        try {
-            routingOk = routingService != null && routingService.route(io.dav033.maroconstruction.enums.LeadType.values()[0]) != null;
-        } catch (Exception e) {
-            routingOk = false;
-        }
+        boolean routingOk = routingService != null && !routingService.configuredTypes().isEmpty();
         return urlOk && routingOk;
     }
 
-    private void updateCustomFields(String taskId, List<ClickUpTaskRequest.CustomField> customFields) {
-        customFields.forEach(field -> execute("update custom field", () -> {
-            String url = String.format("%s/task/%s/field/%s", config.getApiUrl(), taskId, field.getId());
-            java.util.Map<String, Object> requestBody = new java.util.HashMap<>();
-            requestBody.put("value", field.getValue()); 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headersProvider.get());
-            restTemplate.postForEntity(url, entity, Void.class);
-            return null;
-        }));
+    public void updateCustomFields(LeadType type, String taskId, List<ClickUpTaskRequest.CustomField> customFields) {
+        if (customFields == null || customFields.isEmpty()) {
+            return;
+        }
+        writeCustomFields(type, taskId, customFields);
     }
 
     private <T> T execute(String action, Supplier<T> supplier) {
         try {
             return supplier.get();
+        } catch (ClickUpException e) {
+            // Ya clasificada (p. ej. descarte del rate limiter o del circuito): se propaga tal cual
+            throw e;
         } catch (RestClientException e) {
             log.error("Error durante la acción '{}' en ClickUp: {}", action, e.getMessage(), e);
             throw new ClickUpException("ClickUp " + action + " failed: " + e.getMessage(), e);
@@ -0,0 +1,102 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskListResponse.ClickUpTaskSummary;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskListResponse.ClickUpTaskSummary.CustomFieldValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lee una página de GET list/{id}/task token a token. De cada tarea sólo se conservan id, name, url y
+ * los custom fields pedidos; description, type_config, assignees, etc. se saltan sin construir árboles.
+ */
+final class ClickUpTaskPageParser {
+
+    record Page(List<ClickUpTaskSummary> tasks, boolean lastPage) {}
+
+    private ClickUpTaskPageParser() {}
+
+    /**
+     * @param fieldIds custom fields a conservar; null para conservarlos todos, vacío para ninguno
+     */
+    static Page parse(JsonParser p, Set<String> fieldIds) throws IOException {
+        List<ClickUpTaskSummary> tasks = new ArrayList<>();
+        boolean lastPage = false;
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return new Page(tasks, true);
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken token = p.nextToken();
+            if ("tasks".equals(name) && token == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    tasks.add(readTask(p, fieldIds));
+                }
+            } else if ("last_page".equals(name)) {
+                lastPage = p.getValueAsBoolean();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new Page(tasks, lastPage);
+    }
+
+    private static ClickUpTaskSummary readTask(JsonParser p, Set<String> fieldIds) throws IOException {
+        ClickUpTaskSummary task = new ClickUpTaskSummary();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "id" -> task.setId(p.getValueAsString());
+                case "name" -> task.setName(p.getValueAsString());
+                case "url" -> task.setUrl(p.getValueAsString());
+                case "custom_fields" -> {
+                    if (token == JsonToken.START_ARRAY) {
+                        task.setCustomFields(readCustomFields(p, fieldIds));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return task;
+    }
+
+    private static List<CustomFieldValue> readCustomFields(JsonParser p, Set<String> fieldIds) throws IOException {
+        List<CustomFieldValue> fields = new ArrayList<>();
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            CustomFieldValue field = new CustomFieldValue();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                p.nextToken();
+                switch (name) {
+                    case "id" -> field.setId(p.getValueAsString());
+                    case "name" -> field.setName(p.getValueAsString());
+                    case "type" -> field.setType(p.getValueAsString());
+                    case "value" -> {
+                        // ClickUp manda el id antes que el valor: si ya sabemos que no interesa, no se materializa
+                        if (field.getId() != null && !wanted(fieldIds, field.getId())) {
+                            p.skipChildren();
+                        } else {
+                            field.setValue(p.readValueAs(Object.class));
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            if (field.getId() != null && wanted(fieldIds, field.getId())) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean wanted(Set<String> fieldIds, String id) {
+        return fieldIds == null || fieldIds.contains(id);
+    }
+}
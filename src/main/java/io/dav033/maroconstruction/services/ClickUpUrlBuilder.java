@@ -44,6 +44,26 @@ public class ClickUpUrlBuilder {
         return buildUrl("list", listId, "field");
     }
 
+    /**
+     * Página de tareas de una lista (ClickUp devuelve hasta 100 por página). Si {@code customFieldsFilter}
+     * no es null se envía como {@code custom_fields}, un array JSON de {field_id, operator, value}, para
+     * que el filtrado se haga en ClickUp.
+     */
+    public java.net.URI listTasksPage(String listId, int page, String customFieldsFilter) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+            .fromUriString(config.getApiUrl().trim())
+            .pathSegment("list", listId.trim(), "task")
+            .queryParam("page", page)
+            .queryParam("include_closed", true);
+        if (customFieldsFilter == null) {
+            return builder.build().toUri();
+        }
+        return builder.queryParam("custom_fields", "{filter}")
+            .encode()
+            .buildAndExpand(customFieldsFilter)
+            .toUri();
+    }
+
     public java.net.URI taskById(String id) {
         return java.net.URI.create(config.getApiUrl() + "/task/" + id);
     }
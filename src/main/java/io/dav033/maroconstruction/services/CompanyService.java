@@ -10,8 +10,10 @@ import io.dav033.maroconstruction.repositories.CompanyRepository;
 import io.dav033.maroconstruction.repositories.ContactsRepository;
 import io.dav033.maroconstruction.services.base.BaseService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class CompanyService
@@ -55,6 +57,12 @@ public class CompanyService
         }
     }
 
+    /** Todas las compañías sobre un cursor; se consume dentro de la transacción del llamador (ver {@link JsonArrayStreamer}). */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Company> streamAll() {
+        return repository.streamAll().map(mapper::toDto);
+    }
+
     public List<Company> findCustomers() {
         List<CompanyEntity> entities = repository.findByCustomerTrue();
         return mapper.toDtoList(entities);
@@ -6,7 +6,13 @@ import io.dav033.maroconstruction.mappers.CompanyServiceMapper;
 import io.dav033.maroconstruction.models.CompanyServiceEntity;
 import io.dav033.maroconstruction.repositories.CompanyServiceRepository;
 import io.dav033.maroconstruction.services.base.BaseService;
+import io.dav033.maroconstruction.config.ReferenceDataCacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 public class CompanyServiceCatalogService
@@ -18,6 +24,22 @@ public class CompanyServiceCatalogService
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, key = "'all'")
+    public List<CompanyService> findAll() {
+        return List.copyOf(super.findAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, key = "#id")
+    public CompanyService findById(Long id) {
+        return super.findById(id);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, allEntries = true)
     public CompanyService create(CompanyService dto) {
         if (dto.getName() != null && repository.existsByNameIgnoreCase(dto.getName())) {
             throw new ValidationException("Company service name already exists: %s", dto.getName());
@@ -26,6 +48,8 @@ public class CompanyServiceCatalogService
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, allEntries = true)
     public CompanyService update(Long id, CompanyService dto) {
         if (dto.getName() != null) {
             CompanyServiceEntity current = repository.findById(id)
@@ -37,4 +61,18 @@ public class CompanyServiceCatalogService
         }
         return super.update(id, dto);
     }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, allEntries = true)
+    public void delete(Long id) {
+        super.delete(id);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.COMPANY_SERVICES, allEntries = true)
+    public List<CompanyService> saveAll(List<CompanyService> dtos) {
+        return super.saveAll(dtos);
+    }
 }
@@ -3,6 +3,7 @@ package io.dav033.maroconstruction.services;
 import io.dav033.maroconstruction.dto.Contacts;
 import io.dav033.maroconstruction.exceptions.ContactExceptions;
 import io.dav033.maroconstruction.exceptions.ValidationException;
+import io.dav033.maroconstruction.dto.responses.ContactSearchResult;
 import io.dav033.maroconstruction.dto.responses.ContactValidationResponse;
 import io.dav033.maroconstruction.mappers.ContactsMapper;
 import io.dav033.maroconstruction.models.ContactsEntity;
@@ -10,14 +11,29 @@ import io.dav033.maroconstruction.models.CompanyEntity;
 import io.dav033.maroconstruction.repositories.ContactsRepository;
 import io.dav033.maroconstruction.repositories.CompanyRepository;
 import io.dav033.maroconstruction.services.base.BaseService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ContactsService extends BaseService<Contacts, Long, ContactsEntity, ContactsRepository> {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ContactsService.class);
+    private static final String NAME_INDEX = "ux_contacts_name_ci";
+    private static final String EMAIL_INDEX = "ux_contacts_email_ci";
+    private static final String PHONE_INDEX = "ux_contacts_phone";
+
+    private static final int SEARCH_MIN_LENGTH = 2;
+    private static final int SEARCH_DEFAULT_LIMIT = 10;
+    private static final int SEARCH_MAX_LIMIT = 50;
+
     private final CompanyRepository companyRepository;
+    // Se comprueba en la primera búsqueda: pg_trgm llega con V013 y puede faltar en una base sin migrar
+    private volatile Boolean trigramSearch;
 
     public ContactsService(ContactsRepository repository, ContactsMapper contactsMapper, CompanyRepository companyRepository) {
         super(repository, contactsMapper);
@@ -27,37 +43,18 @@ public class ContactsService extends BaseService<Contacts, Long, ContactsEntity,
     @Override
     @Transactional
     public Contacts create(Contacts dto) {
-        if (dto.getName() != null && repository.existsByNameIgnoreCase(dto.getName())) {
-            throw new ValidationException("Contact name already exists: %s", dto.getName());
-        }
-        if (dto.getEmail() != null && !dto.getEmail().isBlank() && repository.existsByEmailIgnoreCase(dto.getEmail())) {
-            throw new ValidationException("Contact email already exists: %s", dto.getEmail());
-        }
-        if (dto.getPhone() != null && !dto.getPhone().isBlank() && repository.existsByPhone(dto.getPhone())) {
-            throw new ValidationException("Contact phone already exists: %s", dto.getPhone());
-        }
         ContactsEntity entity = mapper.toEntity(dto);
         if (dto.getCompanyId() != null) {
             CompanyEntity company = companyRepository.findById(dto.getCompanyId())
                     .orElseThrow(() -> new ValidationException("Company not found with id: %s", dto.getCompanyId()));
             entity.setCompany(company);
         }
-        ContactsEntity saved = repository.save(entity);
-        return mapper.toDto(saved);
+        return mapper.toDto(saveUnique(entity, dto));
     }
 
     @Override
     @Transactional
     public Contacts update(Long id, Contacts dto) {
-        if (dto.getName() != null && repository.existsByNameIgnoreCaseAndIdNot(dto.getName(), id)) {
-            throw new ValidationException("Contact name already exists: %s", dto.getName());
-        }
-        if (dto.getEmail() != null && !dto.getEmail().isBlank() && repository.existsByEmailIgnoreCaseAndIdNot(dto.getEmail(), id)) {
-            throw new ValidationException("Contact email already exists: %s", dto.getEmail());
-        }
-        if (dto.getPhone() != null && !dto.getPhone().isBlank() && repository.existsByPhoneAndIdNot(dto.getPhone(), id)) {
-            throw new ValidationException("Contact phone already exists: %s", dto.getPhone());
-        }
         ContactsEntity entity = repository.findById(id)
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Entity not found with id " + id));
         mapper.updateEntity(dto, entity);
@@ -71,8 +68,38 @@ public class ContactsService extends BaseService<Contacts, Long, ContactsEntity,
             entity.setCompany(null);
         }
         
-        ContactsEntity saved = repository.save(entity);
-        return mapper.toDto(saved);
+        return mapper.toDto(saveUnique(entity, dto));
+    }
+
+    /**
+     * Los índices únicos ux_contacts_* son la validación: se hace flush para que el duplicado salte aquí
+     * y se traduce al mismo ValidationException que antes daban las comprobaciones previas.
+     */
+    private ContactsEntity saveUnique(ContactsEntity entity, Contacts dto) {
+        try {
+            return repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            String constraint = constraintName(ex);
+            if (constraint.contains(NAME_INDEX)) {
+                throw new ValidationException("Contact name already exists: %s", dto.getName());
+            }
+            if (constraint.contains(EMAIL_INDEX)) {
+                throw new ValidationException("Contact email already exists: %s", dto.getEmail());
+            }
+            if (constraint.contains(PHONE_INDEX)) {
+                throw new ValidationException("Contact phone already exists: %s", dto.getPhone());
+            }
+            throw ex;
+        }
+    }
+
+    private static String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase();
+            }
+        }
+        return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase();
     }
 
     public Contacts getContactByName(String name) {
@@ -91,43 +118,72 @@ public class ContactsService extends BaseService<Contacts, Long, ContactsEntity,
         return mapper.toDto(entity);
     }
 
+    @Transactional(readOnly = true)
     public ContactValidationResponse validateAvailability(String name, String email, String phone, Long excludeId) {
-        boolean nameOk = true;
-        boolean emailOk = true;
-        boolean phoneOk = true;
-        String nameReason = "OK";
-        String emailReason = "OK";
-        String phoneReason = "OK";
-
-        if (name != null && !name.isBlank()) {
-            nameOk = excludeId == null
-                    ? !repository.existsByNameIgnoreCase(name)
-                    : !repository.existsByNameIgnoreCaseAndIdNot(name, excludeId);
-            if (!nameOk) nameReason = "Name already exists";
-        }
-        if (email != null && !email.isBlank()) {
-            emailOk = excludeId == null
-                    ? !repository.existsByEmailIgnoreCase(email)
-                    : !repository.existsByEmailIgnoreCaseAndIdNot(email, excludeId);
-            if (!emailOk) emailReason = "Email already exists";
-        }
-        if (phone != null && !phone.isBlank()) {
-            phoneOk = excludeId == null
-                    ? !repository.existsByPhone(phone)
-                    : !repository.existsByPhoneAndIdNot(phone, excludeId);
-            if (!phoneOk) phoneReason = "Phone already exists";
-        }
+        ContactsRepository.Availability taken = repository.checkAvailability(
+                textOrNull(name), textOrNull(email), textOrNull(phone), excludeId == null ? 0L : excludeId);
+        boolean nameOk = !taken.getNameTaken();
+        boolean emailOk = !taken.getEmailTaken();
+        boolean phoneOk = !taken.getPhoneTaken();
 
         return ContactValidationResponse.builder()
                 .nameAvailable(nameOk)
                 .emailAvailable(emailOk)
                 .phoneAvailable(phoneOk)
-                .nameReason(nameReason)
-                .emailReason(emailReason)
-                .phoneReason(phoneReason)
+                .nameReason(nameOk ? "OK" : "Name already exists")
+                .emailReason(emailOk ? "OK" : "Email already exists")
+                .phoneReason(phoneOk ? "OK" : "Phone already exists")
                 .build();
     }
 
+    private static String textOrNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Búsqueda para autocompletar. Consultas de menos de {@value #SEARCH_MIN_LENGTH} caracteres no van a
+     * la base de datos; el teléfono sólo se busca con 3 dígitos o más. Sin pg_trgm se busca sólo por prefijo.
+     */
+    @Transactional(readOnly = true)
+    public List<ContactSearchResult> search(String query, Integer limit) {
+        String q = query == null ? "" : query.trim().toLowerCase();
+        if (q.length() < SEARCH_MIN_LENGTH) {
+            return List.of();
+        }
+        int max = Math.min(Math.max(limit == null ? SEARCH_DEFAULT_LIMIT : limit, 1), SEARCH_MAX_LIMIT);
+        String digits = q.replaceAll("\\D", "");
+        String phonePattern = digits.length() >= 3 ? "%" + digits + "%" : null;
+        String prefix = escapeLike(q) + "%";
+        List<ContactsRepository.SearchHit> hits = trigramSearchAvailable()
+                ? repository.search(q, prefix, phonePattern, max)
+                : repository.searchByPrefix(prefix, phonePattern, max);
+        return hits.stream()
+                .map(h -> new ContactSearchResult(h.getId(), h.getName(), h.getEmail(), h.getPhone(), h.getScore()))
+                .toList();
+    }
+
+    private boolean trigramSearchAvailable() {
+        Boolean available = trigramSearch;
+        if (available == null) {
+            available = repository.isTrigramSearchAvailable();
+            if (!available) {
+                log.warn("pg_trgm no está instalada (V013): /contacts/search sólo busca por prefijo");
+            }
+            trigramSearch = available;
+        }
+        return available;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /** Todos los contactos sobre un cursor; se consume dentro de la transacción del llamador (ver {@link JsonArrayStreamer}). */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Contacts> streamAll() {
+        return repository.streamAll().map(mapper::toDto);
+    }
+
     public List<Contacts> findCustomers() {
         List<ContactsEntity> entities = repository.findByCustomerTrue();
         return mapper.toDtoList(entities);
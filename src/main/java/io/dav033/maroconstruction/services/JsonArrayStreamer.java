@@ -0,0 +1,68 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.repositories.RepositoryHints;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escribe un Stream de repositorio como array JSON directamente sobre la respuesta. La consulta se abre en
+ * una transacción de sólo lectura (sin ella el driver de Postgres ignora el fetch size y trae todo el
+ * resultado), cada fila se serializa en cuanto llega y el persistence context se vacía cada
+ * {@link RepositoryHints#STREAM_FETCH_SIZE} filas, así que la memoria depende del fetch size y no del tamaño del resultado.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JsonArrayStreamer.class);
+    private static final int CLEAR_EVERY = Integer.parseInt(RepositoryHints.STREAM_FETCH_SIZE);
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readTx;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper, EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * {@code rows} se invoca dentro de la transacción del streaming; debe devolver un Stream respaldado por
+     * un cursor (métodos {@code stream*} con fetch size) y ya mapeado a DTOs.
+     */
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> rows) {
+        return out -> readTx.executeWithoutResult(status -> {
+            long count = 0;
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator json = objectMapper.createGenerator(out)) {
+                // El contenedor cierra la respuesta; el generador sólo vacía su buffer
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+                var it = stream.iterator();
+                while (it.hasNext()) {
+                    json.writeObject(it.next());
+                    if (++count % CLEAR_EVERY == 0) {
+                        // Las entidades ya serializadas no se vuelven a usar: se sueltan del persistence context
+                        entityManager.clear();
+                    }
+                }
+                json.writeEndArray();
+            } catch (IOException e) {
+                // Normalmente el cliente cerró la conexión; la respuesta ya está comprometida
+                log.warn("Streaming JSON interrumpido tras {} filas: {}", count, e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -4,9 +4,20 @@ import io.dav033.maroconstruction.dto.LeadPayloadDto;
 import io.dav033.maroconstruction.dto.Leads;
 import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
 import io.dav033.maroconstruction.dto.webhook.ClickUpTaskResponse;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.exceptions.ClickUpException;
 import io.dav033.maroconstruction.mappers.LeadToClickUpTaskMapper;
+import io.dav033.maroconstruction.models.LeadClickUpMapping;
+import io.dav033.maroconstruction.repositories.LeadClickUpMappingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,65 +25,144 @@ public class LeadClickUpSyncService {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(LeadClickUpSyncService.class);
     private final ClickUpService clickUpService;
     private final LeadToClickUpTaskMapper taskMapper;
+    private final LeadClickUpMappingRepository mappingRepository;
+    private final ObjectMapper objectMapper;
 
-    public LeadClickUpSyncService(ClickUpService clickUpService, LeadToClickUpTaskMapper taskMapper) {
+    public LeadClickUpSyncService(ClickUpService clickUpService,
+                                  LeadToClickUpTaskMapper taskMapper,
+                                  LeadClickUpMappingRepository mappingRepository,
+                                  ObjectMapper objectMapper) {
         this.clickUpService = clickUpService;
         this.taskMapper = taskMapper;
+        this.mappingRepository = mappingRepository;
+        this.objectMapper = objectMapper;
     }
 
         public void syncLeadUpdate(Leads lead) {
+        try {
+            pushLeadUpdate(lead);
+        } catch (Exception ex) {
+            log.error("Error sincronizando lead {} con ClickUp: {}", lead.getId(), ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Igual que {@link #syncLeadUpdate(Leads)} pero propaga los errores de ClickUp, para que el despachador
+     * del outbox pueda reintentar.
+     */
+    public void pushLeadUpdate(Leads lead) {
         if (!clickUpService.isConfigured()) {
             log.debug("ClickUp no configurado: se omite sincronización para lead {}", lead.getId());
             return;
         }
+        ClickUpTaskRequest req = taskMapper.toClickUpTask(toPayload(lead));
+        LeadClickUpMapping mapping = resolveMapping(lead);
+        if (mapping == null) {
+            log.error("ClickUp UPDATE omitido: no se encontró tarea para lead={} (type={})", lead.getLeadNumber(), lead.getLeadType());
+            return;
+        }
+        pushUpdate(lead, mapping, req);
+    }
+
+    private void pushUpdate(Leads lead, LeadClickUpMapping mapping, ClickUpTaskRequest req) {
         try {
-            LeadPayloadDto payload = LeadPayloadDto.builder()
-                .leadNumber(lead.getLeadNumber())
-                .name(lead.getName())
-                .location(lead.getLocation())
-                .startDate(Optional.ofNullable(lead.getStartDate()).map(Object::toString).orElse(null))
-                .leadType(Optional.ofNullable(lead.getLeadType()).map(Enum::name).orElse(null))
-                .contactId(Optional.ofNullable(lead.getContact()).map(Contacts::getId).orElse(null))
-                .build();
-            ClickUpTaskRequest req = taskMapper.toClickUpTask(payload);
-            String taskId = clickUpService.findTaskIdByLeadNumber(lead.getLeadType(), lead.getLeadNumber());
-            if (taskId == null) {
-                taskId = clickUpService.findTaskIdByLeadNumberInAnyList(lead.getLeadNumber()).orElse(null);
-            }
-            if (taskId != null) {
-                clickUpService.updateTask(taskId, req);
-                log.info("ClickUp UPDATE ok: taskId={} lead={} type={}", taskId, lead.getLeadNumber(), lead.getLeadType());
-            } else {
+            pushChanges(lead.getLeadType(), mapping, req);
+        } catch (org.springframework.web.client.HttpClientErrorException.NotFound nf) {
+            // El mapeo apuntaba a una tarea que ya no existe: se descarta y se busca de nuevo en las listas
+            log.warn("ClickUp UPDATE 404 para taskId={} (lead={}). Se descarta el mapeo y se reintenta la búsqueda.", mapping.getClickUpTaskId(), lead.getLeadNumber());
+            dropMapping(lead.getId());
+            mapping = scanForMapping(lead);
+            if (mapping == null) {
                 log.error("ClickUp UPDATE omitido: no se encontró tarea para lead={} (type={})", lead.getLeadNumber(), lead.getLeadType());
+                return;
             }
-        } catch (Exception ex) {
-            log.error("Error sincronizando lead {} con ClickUp: {}", lead.getId(), ex.getMessage(), ex);
+            pushChanges(lead.getLeadType(), mapping, req);
         }
+        log.info("ClickUp UPDATE ok: taskId={} lead={} type={}", mapping.getClickUpTaskId(), lead.getLeadNumber(), lead.getLeadType());
     }
 
+    /**
+     * Envía sólo lo que cambió desde el último push: los custom fields cuyo hash difiere del guardado en el mapeo,
+     * y el PUT de la tarea sólo si cambian nombre/descripción/fechas/tags/prioridad. Si el mapeo no tiene hashes
+     * (tareas antiguas o recién reparadas) se envía todo.
+     */
+    private void pushChanges(LeadType type, LeadClickUpMapping mapping, ClickUpTaskRequest req) {
+        String taskId = mapping.getClickUpTaskId();
+        Fingerprint current = fingerprint(req);
+        Map<String, String> previous = Optional.ofNullable(mapping.getFieldHashes()).orElse(Map.of());
 
-        public void syncLeadCreate(Leads lead) {
-        if (!clickUpService.isConfigured()) {
-            log.debug("ClickUp no configurado: se omite creación para lead {}", lead.getId());
+        List<ClickUpTaskRequest.CustomField> changed = new ArrayList<>();
+        if (req.getCustomFields() != null) {
+            for (ClickUpTaskRequest.CustomField field : req.getCustomFields()) {
+                if (!current.fieldHashes().get(field.getId()).equals(previous.get(field.getId()))) {
+                    changed.add(field);
+                }
+            }
+        }
+        boolean taskChanged = !current.taskHash().equals(mapping.getTaskHash());
+        if (!taskChanged && changed.isEmpty()) {
+            log.debug("ClickUp UPDATE sin cambios para taskId={}", taskId);
             return;
         }
+        log.debug("ClickUp UPDATE taskId={}: tarea {}, {} de {} custom fields modificados", taskId,
+                taskChanged ? "modificada" : "sin cambios", changed.size(),
+                req.getCustomFields() != null ? req.getCustomFields().size() : 0);
+        if (taskChanged) {
+            // Copia: req se reutiliza si hay que reintentar contra otro mapeo tras un 404
+            clickUpService.updateTask(type, taskId, withCustomFields(req, changed));
+        } else {
+            clickUpService.updateCustomFields(type, taskId, changed);
+        }
+        storeFingerprint(mapping, current);
+    }
+
+        public void syncLeadCreate(Leads lead) {
         try {
-            LeadPayloadDto payload = LeadPayloadDto.builder()
-                .leadNumber(lead.getLeadNumber())
-                .name(lead.getName())
-                .location(lead.getLocation())
-                .startDate(Optional.ofNullable(lead.getStartDate()).map(Object::toString).orElse(null))
-                .leadType(Optional.ofNullable(lead.getLeadType()).map(Enum::name).orElse(null))
-                .contactId(Optional.ofNullable(lead.getContact()).map(Contacts::getId).orElse(null))
-                .build();
-            ClickUpTaskRequest req = taskMapper.toClickUpTask(payload);
-            ClickUpTaskResponse created = clickUpService.createTask(lead.getLeadType(), req);
-            log.info("ClickUp CREATE ok: taskId={} lead={} type={}", created != null ? created.getId() : "n/a", lead.getLeadNumber(), lead.getLeadType());
+            pushLeadCreate(lead);
         } catch (Exception ex) {
             log.error("Error sincronizando creación de lead {} con ClickUp: {}", lead.getId(), ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Igual que {@link #syncLeadCreate(Leads)} pero propaga los errores de ClickUp.
+     */
+    public void pushLeadCreate(Leads lead) {
+        if (!clickUpService.isConfigured()) {
+            log.debug("ClickUp no configurado: se omite creación para lead {}", lead.getId());
+            return;
+        }
+        ClickUpTaskRequest req = taskMapper.toClickUpTask(toPayload(lead));
+        // Un reintento puede llegar con la tarea ya creada (timeout tras el POST, o fallo al guardar el mapeo):
+        // en ese caso se actualiza en lugar de duplicarla
+        LeadClickUpMapping existing = findCreatedTask(lead);
+        if (existing != null) {
+            log.info("ClickUp CREATE: lead={} ya tiene tarea taskId={}, se sincroniza como UPDATE", lead.getLeadNumber(), existing.getClickUpTaskId());
+            pushUpdate(lead, existing, req);
+            return;
+        }
+        ClickUpTaskResponse created = clickUpService.createTask(lead.getLeadType(), req);
+        if (created != null) {
+            LeadClickUpMapping mapping = saveMapping(lead, created.getId(), created.getUrl());
+            if (mapping != null) {
+                storeFingerprint(mapping, fingerprint(req));
+            }
+        }
+        log.info("ClickUp CREATE ok: taskId={} lead={} type={}", created != null ? created.getId() : "n/a", lead.getLeadNumber(), lead.getLeadType());
+    }
+
+    private LeadPayloadDto toPayload(Leads lead) {
+        return LeadPayloadDto.builder()
+            .leadNumber(lead.getLeadNumber())
+            .name(lead.getName())
+            .location(lead.getLocation())
+            .startDate(Optional.ofNullable(lead.getStartDate()).map(Object::toString).orElse(null))
+            .leadType(Optional.ofNullable(lead.getLeadType()).map(Enum::name).orElse(null))
+            .contactId(Optional.ofNullable(lead.getContact()).map(Contacts::getId).orElse(null))
+            .notes(lead.getNotes())
+            .build();
+    }
+
         public ClickUpDeleteResult syncLeadDelete(Leads lead) {
         ClickUpDeleteResult result = new ClickUpDeleteResult();
         result.setLeadNumber(lead.getLeadNumber());
@@ -84,6 +174,22 @@ public class LeadClickUpSyncService {
             result.setDiagnosis(msg);
             return result;
         }
+        Optional<LeadClickUpMapping> mapped = lead.getId() != null ? mappingRepository.findByLeadId(lead.getId()) : Optional.empty();
+        if (mapped.isPresent()) {
+            String taskId = mapped.get().getClickUpTaskId();
+            result.setTaskId(taskId);
+            tryDeleteTask(lead.getLeadType(), taskId, result);
+            if ("DELETED".equals(result.getStatus())) {
+                mappingRepository.delete(mapped.get());
+                return result;
+            }
+            if (!"NOT_FOUND_AFTER_DELETE".equals(result.getStatus())) {
+                return result;
+            }
+            // Mapeo obsoleto: la tarea ya no existe con ese id, se repara con el barrido de listas
+            mappingRepository.delete(mapped.get());
+            result.setTaskId(null);
+        }
         try {
             String listId = null;
             String leadNumberId = null;
@@ -99,34 +205,15 @@ public class LeadClickUpSyncService {
             }
             result.setListId(listId);
             result.setLeadNumberId(leadNumberId);
-            var tasks = clickUpService.listTasks(lead.getLeadType());
-            var normalizedTarget = normalize(lead.getLeadNumber());
-
-            final String leadNumberIdFinal = leadNumberId;
-            var matches = tasks.stream()
-                .filter(t -> t.getCustomFields() != null)
-                .filter(t -> t.getCustomFields().stream().anyMatch(cf ->
-                        leadNumberIdFinal.equals(cf.getId()) && equalsNormalized(cf.getValue(), normalizedTarget)))
-                .toList();
-            if (matches.isEmpty()) {
-                String leadNumberIdRetry = clickUpService.getRoutingService().resolveLeadNumberFieldId(lead.getLeadType());
-                result.setLeadNumberId(leadNumberIdRetry);
-                final String leadNumberIdRetryFinal = leadNumberIdRetry;
-                tasks = clickUpService.listTasks(lead.getLeadType());
-                matches = tasks.stream()
-                    .filter(t -> t.getCustomFields() != null)
-                    .filter(t -> t.getCustomFields().stream().anyMatch(cf ->
-                            leadNumberIdRetryFinal.equals(cf.getId()) && equalsNormalized(cf.getValue(), normalizedTarget)))
-                    .toList();
-                result.setDiagnosis("Sin coincidencias tras autodiscovery. Probadas: listId=" + listId + ", fieldId=" + leadNumberIdRetry + ".");
-            }
+            // Filtro custom_fields en ClickUp: sólo viajan las tareas con ese lead number, de todas las páginas
+            var matches = clickUpService.findTasksByCustomField(listId, leadNumberId, lead.getLeadNumber().trim(), false);
             if (matches.isEmpty()) {
                 var anyList = clickUpService.findTaskIdByLeadNumberInAnyList(lead.getLeadNumber());
                 if (anyList.isPresent()) {
                     result.setTaskId(anyList.get());
                     result.setStatus("FOUND_OTHER_LIST");
                     result.setDiagnosis("Lead encontrado en otro LeadType/listId. taskId=" + anyList.get());
-                    return tryDeleteTask(anyList.get(), result);
+                    return tryDeleteTask(lead.getLeadType(), anyList.get(), result, lead.getId());
                 }
                 String msg = "No se encontró tarea con leadNumber=" + lead.getLeadNumber() + " en listId=" + listId + " usando fieldId=" + leadNumberId;
                 log.warn(msg);
@@ -140,7 +227,7 @@ public class LeadClickUpSyncService {
             }
             var chosen = matches.get(0);
             result.setTaskId(chosen.getId());
-            return tryDeleteTask(chosen.getId(), result);
+            return tryDeleteTask(lead.getLeadType(), chosen.getId(), result, lead.getId());
         } catch (Exception ex) {
             String msg = "Error sincronizando eliminación de lead " + lead.getId() + " con ClickUp: " + ex.getMessage();
             log.error(msg, ex);
@@ -150,9 +237,17 @@ public class LeadClickUpSyncService {
         }
     }
 
-    private ClickUpDeleteResult tryDeleteTask(String taskId, ClickUpDeleteResult result) {
+    private ClickUpDeleteResult tryDeleteTask(LeadType type, String taskId, ClickUpDeleteResult result, Long leadId) {
+        tryDeleteTask(type, taskId, result);
+        if ("DELETED".equals(result.getStatus())) {
+            dropMapping(leadId);
+        }
+        return result;
+    }
+
+    private ClickUpDeleteResult tryDeleteTask(LeadType type, String taskId, ClickUpDeleteResult result) {
         try {
-            boolean deleted = clickUpService.deleteTask(taskId);
+            boolean deleted = deleteTaskUnwrapped(type, taskId);
             if (deleted) {
                 result.setStatus("DELETED");
                 result.setDiagnosis("Eliminación completada. taskId=" + taskId);
@@ -179,15 +274,168 @@ public class LeadClickUpSyncService {
         return result;
     }
 
-    private String normalize(String s) {
-        return s == null ? "" : s.trim().toLowerCase();
+    private boolean deleteTaskUnwrapped(LeadType type, String taskId) {
+        try {
+            return clickUpService.deleteTask(type, taskId);
+        } catch (ClickUpException ex) {
+            // ClickUpService envuelve los errores HTTP; se expone la causa para clasificar 404/401/409
+            if (ex.getCause() instanceof org.springframework.web.client.HttpClientErrorException http) {
+                throw http;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Resuelve el taskId de ClickUp para un lead. Primero consulta lead_clickup_mapping (lookup indexado por lead_id);
+     * sólo si no hay mapeo se recorre la lista de ClickUp, y el resultado repara el mapeo para las siguientes llamadas.
+     */
+    private LeadClickUpMapping resolveMapping(Leads lead) {
+        if (lead.getId() != null) {
+            Optional<LeadClickUpMapping> mapped = mappingRepository.findByLeadId(lead.getId());
+            if (mapped.isPresent()) {
+                LeadClickUpMapping m = mapped.get();
+                if (lead.getLeadNumber() != null && !lead.getLeadNumber().equals(m.getLeadNumber())) {
+                    m.setLeadNumber(lead.getLeadNumber());
+                    m = mappingRepository.save(m);
+                }
+                return m;
+            }
+        }
+        return scanForMapping(lead);
     }
 
-    private boolean equalsNormalized(Object value, String target) {
-        if (value == null) return false;
-        String s = (value instanceof Number) ? String.valueOf(((Number) value).longValue()) : String.valueOf(value);
-        return normalize(s).equals(target);
+    /**
+     * Tarea que ya exista para un lead que se va a crear: el mapeo si lo hay, si no la lista de su tipo
+     * (sin barrer las demás listas, que para un lead nuevo no deberían tenerlo).
+     */
+    private LeadClickUpMapping findCreatedTask(Leads lead) {
+        if (lead.getId() != null) {
+            Optional<LeadClickUpMapping> mapped = mappingRepository.findByLeadId(lead.getId());
+            if (mapped.isPresent()) {
+                return mapped.get();
+            }
+        }
+        String taskId = clickUpService.findTaskIdByLeadNumber(lead.getLeadType(), lead.getLeadNumber());
+        return taskId != null ? repairMapping(lead, taskId) : null;
+    }
+
+    private LeadClickUpMapping scanForMapping(Leads lead) {
+        String taskId = clickUpService.findTaskIdByLeadNumber(lead.getLeadType(), lead.getLeadNumber());
+        if (taskId == null) {
+            taskId = clickUpService.findTaskIdByLeadNumberInAnyList(lead.getLeadNumber()).orElse(null);
+        }
+        if (taskId == null) {
+            return null;
+        }
+        return repairMapping(lead, taskId);
     }
+
+    private LeadClickUpMapping repairMapping(Leads lead, String taskId) {
+        log.info("Mapeo lead→tarea reparado por búsqueda en listas: lead={} taskId={}", lead.getLeadNumber(), taskId);
+        LeadClickUpMapping saved = saveMapping(lead, taskId, null);
+        if (saved != null) {
+            return saved;
+        }
+        LeadClickUpMapping transientMapping = new LeadClickUpMapping();
+        transientMapping.setLeadId(lead.getId());
+        transientMapping.setLeadNumber(lead.getLeadNumber());
+        transientMapping.setClickUpTaskId(taskId);
+        return transientMapping;
+    }
+
+    private LeadClickUpMapping saveMapping(Leads lead, String taskId, String taskUrl) {
+        if (lead.getId() == null || taskId == null || lead.getLeadNumber() == null) {
+            return null;
+        }
+        try {
+            LeadClickUpMapping mapping = mappingRepository.findByLeadId(lead.getId()).orElseGet(LeadClickUpMapping::new);
+            if (!taskId.equals(mapping.getClickUpTaskId())) {
+                // Otra tarea: los hashes guardados ya no describen su contenido
+                mapping.setTaskHash(null);
+                mapping.setFieldHashes(null);
+            }
+            mapping.setLeadId(lead.getId());
+            mapping.setLeadNumber(lead.getLeadNumber());
+            mapping.setClickUpTaskId(taskId);
+            if (taskUrl != null) {
+                mapping.setClickUpTaskUrl(taskUrl);
+            }
+            return mappingRepository.save(mapping);
+        } catch (Exception ex) {
+            log.warn("No se pudo guardar el mapeo lead→tarea (lead={}, taskId={}): {}", lead.getLeadNumber(), taskId, ex.getMessage());
+            return null;
+        }
+    }
+
+    private static ClickUpTaskRequest withCustomFields(ClickUpTaskRequest req, List<ClickUpTaskRequest.CustomField> fields) {
+        ClickUpTaskRequest copy = new ClickUpTaskRequest();
+        copy.setName(req.getName());
+        copy.setDescription(req.getDescription());
+        copy.setAssignees(req.getAssignees());
+        copy.setTags(req.getTags());
+        copy.setStatus(req.getStatus());
+        copy.setPriority(req.getPriority());
+        copy.setDueDate(req.getDueDate());
+        copy.setStartDate(req.getStartDate());
+        copy.setTimeEstimate(req.getTimeEstimate());
+        copy.setCustomFields(fields);
+        return copy;
+    }
+
+    private record Fingerprint(String taskHash, Map<String, String> fieldHashes) {}
+
+    private Fingerprint fingerprint(ClickUpTaskRequest req) {
+        Map<String, Object> taskAttributes = new LinkedHashMap<>();
+        taskAttributes.put("name", req.getName());
+        taskAttributes.put("description", req.getDescription());
+        taskAttributes.put("start_date", req.getStartDate());
+        taskAttributes.put("due_date", req.getDueDate());
+        taskAttributes.put("status", req.getStatus());
+        taskAttributes.put("priority", req.getPriority());
+        taskAttributes.put("tags", req.getTags());
+        Map<String, String> fieldHashes = new LinkedHashMap<>();
+        if (req.getCustomFields() != null) {
+            for (ClickUpTaskRequest.CustomField field : req.getCustomFields()) {
+                fieldHashes.put(field.getId(), hash(field.getValue()));
+            }
+        }
+        return new Fingerprint(hash(taskAttributes), fieldHashes);
+    }
+
+    private String hash(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (Exception e) {
+            // Sin hash fiable el campo se considera siempre modificado
+            return "unhashable:" + System.nanoTime();
+        }
+    }
+
+    private void storeFingerprint(LeadClickUpMapping mapping, Fingerprint fingerprint) {
+        if (mapping.getId() == null) {
+            return;
+        }
+        Map<String, String> merged = new LinkedHashMap<>(Optional.ofNullable(mapping.getFieldHashes()).orElse(Map.of()));
+        merged.putAll(fingerprint.fieldHashes());
+        mapping.setTaskHash(fingerprint.taskHash());
+        mapping.setFieldHashes(merged);
+        try {
+            mappingRepository.save(mapping);
+        } catch (Exception ex) {
+            log.warn("No se pudieron guardar los hashes de sincronización para taskId={}: {}", mapping.getClickUpTaskId(), ex.getMessage());
+        }
+    }
+
+    private void dropMapping(Long leadId) {
+        if (leadId == null) {
+            return;
+        }
+        mappingRepository.findByLeadId(leadId).ifPresent(mappingRepository::delete);
+    }
+
     public static class ClickUpDeleteResult {
         private String status;
         private String leadNumber;
@@ -211,6 +459,10 @@ public class LeadClickUpSyncService {
         public void setTaskId(String taskId) { this.taskId = taskId; }
         public String getDiagnosis() { return diagnosis; }
         public void setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; }
+
+        public boolean isSuccessful() {
+            return "DELETED".equals(status) || "NOT_FOUND".equals(status) || "CONFIG_ERROR".equals(status);
+        }
     }
 
     
@@ -0,0 +1,83 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.exceptions.DatabaseException;
+import io.dav033.maroconstruction.repositories.LeadNumberCounterRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna lead numbers ({@code NNN-MMyy}, {@code NNNP-MMyy} para plumbing) a partir de un contador por
+ * LeadType en lead_number_counter. El coste de cada alta es un UPDATE por clave primaria, sin importar
+ * cuántos leads haya, y el bloqueo de fila serializa las altas concurrentes entre nodos.
+ */
+@Service
+public class LeadNumberAllocator {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(LeadNumberAllocator.class);
+    private static final DateTimeFormatter MONTH_FMT = DateTimeFormatter.ofPattern("MMyy");
+    private static final Pattern PLUMBING_NUMBER = Pattern.compile("^(\\d{3})P-\\d{4}$");
+    private static final Pattern DEFAULT_NUMBER = Pattern.compile("^(\\d{3})-\\d{4}$");
+    // Números ya ocupados a mano que se saltan antes de rendirse
+    private static final int MAX_SKIPS = 50;
+
+    private final LeadNumberCounterRepository counterRepository;
+    private final LeadsRepository leadsRepository;
+
+    public LeadNumberAllocator(LeadNumberCounterRepository counterRepository, LeadsRepository leadsRepository) {
+        this.counterRepository = counterRepository;
+        this.leadsRepository = leadsRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String next(LeadType type) {
+        String mmyy = LocalDate.now().format(MONTH_FMT);
+        for (int i = 0; i < MAX_SKIPS; i++) {
+            String candidate = format(type, nextSequence(type), mmyy);
+            if (!leadsRepository.existsByLeadNumber(candidate)) {
+                return candidate;
+            }
+            log.warn("Lead number {} ya existe (asignado a mano); se salta", candidate);
+        }
+        throw new DatabaseException("No se pudo asignar un lead number libre para " + type);
+    }
+
+    /**
+     * Mantiene el contador por encima de los lead numbers introducidos a mano, para que el siguiente
+     * generado no choque con ellos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void observe(LeadType type, String leadNumber) {
+        if (type == null || leadNumber == null) {
+            return;
+        }
+        Matcher m = patternFor(type).matcher(leadNumber.trim());
+        if (m.matches()) {
+            counterRepository.raiseTo(type.name(), Integer.parseInt(m.group(1)));
+        }
+    }
+
+    private int nextSequence(LeadType type) {
+        return counterRepository.increment(type.name()).orElseGet(() -> {
+            counterRepository.seed(type.name(), patternFor(type).pattern());
+            return counterRepository.increment(type.name())
+                    .orElseThrow(() -> new DatabaseException("No se pudo inicializar lead_number_counter para " + type));
+        });
+    }
+
+    private static Pattern patternFor(LeadType type) {
+        return type == LeadType.PLUMBING ? PLUMBING_NUMBER : DEFAULT_NUMBER;
+    }
+
+    private static String format(LeadType type, int sequence, String mmyy) {
+        String base = String.format("%03d", sequence);
+        return type == LeadType.PLUMBING ? base + "P-" + mmyy : base + "-" + mmyy;
+    }
+}
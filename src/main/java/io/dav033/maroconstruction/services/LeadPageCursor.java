@@ -0,0 +1,38 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.exceptions.ValidationException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Cursor opaco del listado paginado de leads: la clave (start_date, id) del último elemento de la
+ * página, en Base64 URL-safe para poder ir tal cual en la query string.
+ */
+final class LeadPageCursor {
+
+    record Key(LocalDate startDate, long id) {}
+
+    private LeadPageCursor() {}
+
+    static String encode(LocalDate startDate, long id) {
+        String key = startDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null si no hay cursor (primera página); ValidationException si no es uno emitido por {@link #encode}. */
+    static Key decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = key.indexOf('|');
+            return new Key(LocalDate.parse(key.substring(0, sep)), Long.parseLong(key.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
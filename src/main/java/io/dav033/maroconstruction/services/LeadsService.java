@@ -1,7 +1,10 @@
 package io.dav033.maroconstruction.services;
 
 import io.dav033.maroconstruction.dto.Contacts;
+import io.dav033.maroconstruction.dto.LeadListRow;
 import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.dto.ProjectType;
+import io.dav033.maroconstruction.enums.ClickUpSyncOperation;
 import io.dav033.maroconstruction.enums.LeadStatus;
 import io.dav033.maroconstruction.enums.LeadType;
 import io.dav033.maroconstruction.exceptions.ContactExceptions;
@@ -12,9 +15,10 @@ import io.dav033.maroconstruction.mappers.GenericMapper;
 import io.dav033.maroconstruction.mappers.LeadsMapper;
 import io.dav033.maroconstruction.models.ContactsEntity;
 import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.NotesJson;
 import io.dav033.maroconstruction.models.ProjectEntity;
-import io.dav033.maroconstruction.models.ProjectTypeEntity;
 import io.dav033.maroconstruction.repositories.ContactsRepository;
+import io.dav033.maroconstruction.repositories.LeadSpecifications;
 import io.dav033.maroconstruction.repositories.LeadsRepository;
 import io.dav033.maroconstruction.repositories.ProjectRepository;
 import io.dav033.maroconstruction.repositories.ProjectTypeRepository;
@@ -22,50 +26,62 @@ import io.dav033.maroconstruction.services.base.BaseService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import io.dav033.maroconstruction.dto.requests.LeadPageRequest;
 import io.dav033.maroconstruction.dto.responses.LeadNumberValidationResponse;
+import io.dav033.maroconstruction.dto.responses.LeadPageResponse;
 import org.springframework.util.StringUtils;
 
 @Service
 public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRepository> {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(LeadsService.class);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
 
     public LeadsService(
             LeadsRepository repository,
             GenericMapper<Leads, LeadsEntity> mapper,
             ContactsService contactsService,
             ContactsRepository contactsRepository,
+            ProjectTypeService projectTypeService,
             ProjectTypeRepository projectTypeRepository,
             ProjectRepository projectRepository,
             LeadsMapper leadMapper,
-            LeadClickUpSyncService leadClickUpSyncService,
+            ClickUpOutboxService clickUpOutbox,
+            LeadNumberAllocator leadNumberAllocator,
             EntityManager entityManager) {
         super(repository, mapper);
         this.contactsService = contactsService;
         this.contactsRepository = contactsRepository;
+        this.projectTypeService = projectTypeService;
         this.projectTypeRepository = projectTypeRepository;
         this.projectRepository = projectRepository;
         this.leadMapper = leadMapper;
-        this.leadClickUpSyncService = leadClickUpSyncService;
+        this.clickUpOutbox = clickUpOutbox;
+        this.leadNumberAllocator = leadNumberAllocator;
         this.entityManager = entityManager;
     }
 
-    private static final DateTimeFormatter LEAD_NO_FMT = DateTimeFormatter.ofPattern("MMyy");
 
     private final ContactsService contactsService;
     private final ContactsRepository contactsRepository;
+    private final ProjectTypeService projectTypeService;
     private final ProjectTypeRepository projectTypeRepository;
     private final ProjectRepository projectRepository;
     private final LeadsMapper leadMapper;
-    private final LeadClickUpSyncService leadClickUpSyncService;
+    private final ClickUpOutboxService clickUpOutbox;
+    private final LeadNumberAllocator leadNumberAllocator;
 
     @PersistenceContext
     private final EntityManager entityManager;
@@ -75,20 +91,101 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
      * CONSULTAS
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~
      */
+    /**
+     * Listado completo leído con una proyección por constructor: una sola consulta con las columnas
+     * que expone el DTO, sin entidades gestionadas ni snapshots de dirty-checking.
+     */
+    @Transactional(readOnly = true)
     public List<Leads> getAllLeads() {
-        return repository.findAll()
-                .stream()
-                .map(leadMapper::toDto)
-                .toList();
+        try (Stream<LeadListRow> rows = repository.streamAllListRows()) {
+            return rows.map(this::toDto).toList();
+        }
+    }
+
+    /**
+     * Igual que {@link #getAllLeads()} pero sobre un cursor: hay que consumirlo dentro de la transacción que lo abre
+     * (ver {@link JsonArrayStreamer}).
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Leads> streamAllLeads() {
+        return repository.streamAllListRows().map(this::toDto);
     }
 
+    /**
+     * Página de leads ordenada por (start_date, id). El cursor codifica la clave del último elemento,
+     * así que el coste de cada página no depende de cuántas se hayan recorrido antes.
+     */
+    @Transactional(readOnly = true)
+    public LeadPageResponse getLeadsPage(LeadPageRequest request) {
+        int limit = Math.min(Math.max(Optional.ofNullable(request.getLimit()).orElse(DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        boolean ascending = request.isAscending();
+        LeadPageCursor.Key after = LeadPageCursor.decode(request.getCursor());
+        Specification<LeadsEntity> spec = Specification.allOf(
+                LeadSpecifications.withRelations(),
+                LeadSpecifications.hasStatus(request.getStatus()),
+                LeadSpecifications.hasType(request.getType()),
+                LeadSpecifications.hasProjectType(request.getProjectTypeId()),
+                LeadSpecifications.hasContact(request.getContactId()),
+                LeadSpecifications.startDateBetween(request.getFrom(), request.getTo()),
+                after != null ? LeadSpecifications.after(after.startDate(), after.id(), ascending) : null);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, "startDate").and(Sort.by(direction, "id"));
+
+        // Se pide una fila de más para saber si hay página siguiente sin un COUNT
+        List<LeadsEntity> rows = repository.findBy(spec, q -> q.sortBy(sort).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        LeadsEntity last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return LeadPageResponse.builder()
+                .items(rows.stream().map(leadMapper::toDto).toList())
+                .hasMore(hasMore)
+                .nextCursor(hasMore && last != null ? LeadPageCursor.encode(last.getStartDate(), last.getId()) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public List<Leads> getLeadsByType(LeadType type) {
-        return repository.findByLeadType(type)
+        return repository.findListRowsByLeadType(type)
                 .stream()
-                .map(leadMapper::toDto)
+                .map(this::toDto)
                 .toList();
     }
 
+    private Leads toDto(LeadListRow row) {
+        Leads dto = new Leads();
+        dto.setId(row.id());
+        dto.setLeadNumber(row.leadNumber());
+        dto.setName(row.name());
+        dto.setStartDate(row.startDate());
+        dto.setLocation(row.location());
+        dto.setStatus(row.status());
+        dto.setLeadType(row.leadType());
+        dto.setNotes(NotesJson.parse(row.notesJson()));
+        if (row.contactId() != null) {
+            Contacts contact = new Contacts();
+            contact.setId(row.contactId());
+            contact.setName(row.contactName());
+            contact.setOccupation(row.contactOccupation());
+            contact.setPhone(row.contactPhone());
+            contact.setEmail(row.contactEmail());
+            contact.setAddress(row.contactAddress());
+            contact.setCustomer(Boolean.TRUE.equals(row.contactCustomer()));
+            contact.setClient(Boolean.TRUE.equals(row.contactClient()));
+            contact.setNotesJson(row.contactNotesJson());
+            dto.setContact(contact);
+        }
+        if (row.projectTypeId() != null) {
+            dto.setProjectType(ProjectType.builder()
+                    .id(row.projectTypeId())
+                    .name(row.projectTypeName())
+                    .color(row.projectTypeColor())
+                    .build());
+        }
+        return dto;
+    }
+
     @Transactional(readOnly = true)
     public Leads getLeadById(Long id) {
         LeadsEntity entity = repository.findById(id)
@@ -166,17 +263,17 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
                 "Project Type is required");
         }
         
-        ProjectTypeEntity projectType = resolveProjectType(projectTypeId);
+        ProjectType projectType = cachedProjectType(projectTypeId);
 
         LeadsEntity entity = leadMapper.toEntity(lead);
         entity.setContact(contact);
-        entity.setProjectType(projectType);
+        entity.setProjectType(projectTypeRepository.getReferenceById(projectTypeId));
 
         try {
             LeadsEntity saved = repository.save(entity);
-            Leads dto = leadMapper.toDto(saved);
+            Leads dto = toDto(saved, projectType);
             if (!skipClickUpSync) {
-                leadClickUpSyncService.syncLeadCreate(dto);
+                clickUpOutbox.enqueue(ClickUpSyncOperation.CREATE, saved);
             } else {
                 log.info("Skip ClickUp sync on create for lead {} ({})", dto.getId(), dto.getLeadNumber());
             }
@@ -203,14 +300,32 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
         System.out.println("[LOG] Notas persistidas en entidad: " + entity.getNotes());
         entityManager.flush();
 
-        Leads dto = leadMapper.toDto(entity);
-        leadClickUpSyncService.syncLeadUpdate(dto);
-        return dto;
+        clickUpOutbox.enqueue(ClickUpSyncOperation.UPDATE, entity);
+        Long projectTypeId = entity.getProjectTypeId();
+        return projectTypeId != null ? toDto(entity, cachedProjectType(projectTypeId)) : leadMapper.toDto(entity);
+    }
+
+    /**
+     * Añade una nota con un único UPDATE sobre el jsonb (sin cargar el lead ni pasar por el dirty-checking)
+     * y encola un UPDATE en el outbox: el diff de fingerprints sólo envía a ClickUp el campo de notas.
+     * Devuelve las notas resultantes.
+     */
+    @Transactional
+    public List<String> appendNote(Long id, String note) {
+        if (!StringUtils.hasText(note)) {
+            throw new io.dav033.maroconstruction.exceptions.ValidationException("Note must not be empty");
+        }
+        String notes = repository.appendNote(id, NotesJson.write(List.of(note.trim())))
+                .orElseThrow(() -> new LeadExceptions.LeadNotFoundException(id));
+        clickUpOutbox.enqueue(ClickUpSyncOperation.UPDATE, id);
+        return NotesJson.parse(notes);
     }
 
     private void updateEntityFields(Leads dto, LeadsEntity entity) {
-        if (dto.getLeadNumber() != null) {
+        boolean numberingChanged = false;
+        if (dto.getLeadNumber() != null && !dto.getLeadNumber().equals(entity.getLeadNumber())) {
             entity.setLeadNumber(dto.getLeadNumber());
+            numberingChanged = true;
         }
         if (dto.getName() != null) {
             entity.setName(dto.getName());
@@ -241,8 +356,9 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
                 entity.setStatus(LeadStatus.NOT_EXECUTED);
             }
         }
-        if (dto.getLeadType() != null) {
+        if (dto.getLeadType() != null && dto.getLeadType() != entity.getLeadType()) {
             entity.setLeadType(dto.getLeadType());
+            numberingChanged = true;
         }
         if (dto.getContact() != null && dto.getContact().getId() != null) {
             ContactsEntity contactEntity = contactsRepository.findById(dto.getContact().getId())
@@ -250,31 +366,25 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
             entity.setContact(contactEntity);
         }
         if (dto.getProjectType() != null && dto.getProjectType().getId() != null) {
-            ProjectTypeEntity projectTypeEntity = projectTypeRepository.findById(dto.getProjectType().getId())
-                    .orElseThrow(
-                            () -> new ProjectTypeExceptions.ProjectTypeNotFoundException(dto.getProjectType().getId()));
-            entity.setProjectType(projectTypeEntity);
+            Long projectTypeId = dto.getProjectType().getId();
+            cachedProjectType(projectTypeId);
+            entity.setProjectType(projectTypeRepository.getReferenceById(projectTypeId));
         }
         if (dto.getNotes() != null) {
             entity.setNotes(dto.getNotes());
         }
+        if (numberingChanged) {
+            // Con el tipo definitivo: un patch puede cambiar número y tipo a la vez (p. ej. 040P-0126 a PLUMBING)
+            leadNumberAllocator.observe(entity.getLeadType(), entity.getLeadNumber());
+        }
     }
 
     @Transactional
     public boolean deleteLead(Long id) {
         LeadsEntity entity = repository.findById(id)
                 .orElseThrow(() -> new LeadExceptions.LeadNotFoundException(id));
-        Leads dto = leadMapper.toDto(entity);
-        var syncResult = leadClickUpSyncService.syncLeadDelete(dto);
-        if (!isDeleteSyncSuccessful(syncResult)) {
-            String errorMsg = String.format("Failed to sync lead deletion with ClickUp. Status: %s, Diagnosis: %s",
-                    syncResult.getStatus(), syncResult.getDiagnosis());
-            log.error(errorMsg);
-            throw new RuntimeException("ClickUp sync failed: " + errorMsg);
-        }
-
-        log.info("ClickUp sync successful for lead {}. Status: {}, TaskId: {}",
-                id, syncResult.getStatus(), syncResult.getTaskId());
+        // La baja en ClickUp se entrega de forma asíncrona (con reintentos) desde el outbox
+        clickUpOutbox.enqueue(ClickUpSyncOperation.DELETE, entity);
 
         try {
             // Clear lead references from projects before deletion
@@ -295,20 +405,6 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
         }
     }
 
-    private boolean isDeleteSyncSuccessful(Object syncResult) {
-        try {
-            var statusField = syncResult.getClass().getDeclaredField("status");
-            statusField.setAccessible(true);
-            String status = (String) statusField.get(syncResult);
-            return "DELETED".equals(status) ||
-                    "NOT_FOUND".equals(status) ||
-                    "CONFIG_ERROR".equals(status);
-        } catch (Exception e) {
-            log.warn("Could not check sync result status, assuming success", e);
-            return true;
-        }
-    }
-
     private void applyDefaults(Leads lead) {
         lead.setId(null);
         lead.setStatus(Optional.ofNullable(lead.getStatus()).orElse(LeadStatus.NOT_EXECUTED));
@@ -317,38 +413,33 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
             lead.setStartDate(LocalDate.now());
         }
         if (!StringUtils.hasText(lead.getLeadNumber())) {
-            lead.setLeadNumber(generateLeadNumber(lead.getLeadType()));
+            lead.setLeadNumber(leadNumberAllocator.next(lead.getLeadType()));
         } else if (repository.existsByLeadNumber(lead.getLeadNumber())) {
             throw new io.dav033.maroconstruction.exceptions.ValidationException(
                     "Lead number already exists: %s", lead.getLeadNumber());
+        } else {
+            leadNumberAllocator.observe(lead.getLeadType(), lead.getLeadNumber());
         }
     }
 
-    private String generateLeadNumber(LeadType type) {
-        String mmyy = LocalDate.now().format(LEAD_NO_FMT);
-        List<String> all = repository.findAllLeadNumbersByType(type);
-
-        int max = all.stream()
-                .filter(s -> s != null)
-                .map(s -> {
-                    if (type == LeadType.PLUMBING && s.matches("^\\d{3}P-\\d{4}$"))
-                        return Integer.parseInt(s.substring(0, 3));
-                    if (type == LeadType.CONSTRUCTION && s.matches("^\\d{3}-\\d{4}$"))
-                        return Integer.parseInt(s.substring(0, 3));
-                    return -1;
-                })
-                .filter(i -> i >= 0)
-                .max(Integer::compareTo)
-                .orElse(0);
-
-        int next = max + 1;
-        String base = String.format("%03d", next);
-        return (type == LeadType.PLUMBING) ? base + "P-" + mmyy : base + "-" + mmyy;
+    /**
+     * Comprueba el tipo contra la caché de ProjectTypeService, sin consultar project_type en cada alta o
+     * edición. La entidad recibe {@code getReferenceById}: Hibernate sólo escribe la FK y nunca se asocia
+     * una instancia separada construida a mano; el nombre y el color de la respuesta salen de este DTO.
+     */
+    private ProjectType cachedProjectType(Long id) {
+        try {
+            return projectTypeService.findById(id);
+        } catch (jakarta.persistence.EntityNotFoundException ex) {
+            throw new ProjectTypeExceptions.ProjectTypeNotFoundException(id);
+        }
     }
 
-    private ProjectTypeEntity resolveProjectType(Long id) {
-        return projectTypeRepository.findById(id)
-                .orElseThrow(() -> new ProjectTypeExceptions.ProjectTypeNotFoundException(id));
+    /** Mapea el lead sin inicializar la referencia a project_type; el tipo ya viene de la caché. */
+    private Leads toDto(LeadsEntity entity, ProjectType projectType) {
+        Leads dto = leadMapper.toDtoWithoutProjectType(entity);
+        dto.setProjectType(projectType);
+        return dto;
     }
 
     public LeadNumberValidationResponse validateLeadNumber(String leadNumber) {
@@ -367,14 +458,14 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
                     .reason("Lead number already exists")
                     .build();
         }
-        String numericPrefix = extractNumericPrefix(trimmedLeadNumber);
+        String numericPrefix = LeadsEntity.numericPrefixOf(trimmedLeadNumber);
         if (numericPrefix == null) {
             return LeadNumberValidationResponse.builder()
                     .valid(false)
                     .reason("Invalid lead number format")
                     .build();
         }
-        boolean prefixInUse = isNumericPrefixInUse(numericPrefix);
+        boolean prefixInUse = repository.existsByLeadNumberPrefix(numericPrefix);
         if (prefixInUse) {
             return LeadNumberValidationResponse.builder()
                     .valid(false)
@@ -387,28 +478,4 @@ public class LeadsService extends BaseService<Leads, Long, LeadsEntity, LeadsRep
                 .reason("OK")
                 .build();
     }
-
-    private String extractNumericPrefix(String leadNumber) {
-        if (leadNumber.matches("^\\d{3}P-\\d{4}$") || leadNumber.matches("^\\d{3}-\\d{4}$")) {
-            return leadNumber.substring(0, 3);
-        }
-        return null;
-    }
-
-    private boolean isNumericPrefixInUse(String numericPrefix) {
-        for (LeadType type : LeadType.values()) {
-            List<String> allNumbers = repository.findAllLeadNumbersByType(type);
-            boolean prefixExists = allNumbers.stream()
-                    .filter(s -> s != null)
-                    .anyMatch(s -> {
-                        String existingPrefix = extractNumericPrefix(s);
-                        return numericPrefix.equals(existingPrefix);
-                    });
-
-            if (prefixExists) {
-                return true;
-            }
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
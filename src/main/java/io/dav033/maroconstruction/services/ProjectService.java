@@ -1,17 +1,17 @@
 package io.dav033.maroconstruction.services;
 
+import io.dav033.maroconstruction.dto.ProjectWithLeadDTO;
 import io.dav033.maroconstruction.dto.Projects;
-import io.dav033.maroconstruction.models.ContactsEntity;
-import io.dav033.maroconstruction.models.LeadsEntity;
-import io.dav033.maroconstruction.models.ProjectEntity;
 import io.dav033.maroconstruction.repositories.ProjectRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -27,45 +27,40 @@ public class ProjectService {
 
   @Transactional(readOnly = true)
   public List<Projects> getProjectsWithLead() {
-    var projects = projectRepository.findProjectsWithLeadAndContact();
-    return projects.stream().map(this::convertToDtoWithLead).toList();
+    try (Stream<ProjectWithLeadDTO> rows = projectRepository.streamProjectsWithLeadRows()) {
+      return rows.map(ProjectService::toDto).toList();
+    }
   }
-  private static LocalDate toLocalDate(Date d) {
-    return d == null ? null : d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+
+  /** Igual que {@link #getProjectsWithLead()} pero sobre un cursor; se consume dentro de la transacción del llamador. */
+  @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+  public Stream<Projects> streamProjectsWithLead() {
+    return projectRepository.streamProjectsWithLeadRows().map(ProjectService::toDto);
   }
 
-  private Projects convertToDtoWithLead(ProjectEntity entity) {
-    var builder = Projects.builder()
-        .id(entity.getId())
-        .projectName(entity.getProjectName())
-        .overview(entity.getOverview())
-        .payments(entity.getPayments())
-        .projectStatus(entity.getProjectStatus())
-        .invoiceStatus(entity.getInvoiceStatus())
-        .quickbooks(entity.getQuickbooks())
-        .startDate(toLocalDate(entity.getStartDate())) 
-        .endDate(toLocalDate(entity.getEndDate()));    
+  private static Projects toDto(ProjectWithLeadDTO row) {
+    String location = row.location();
+    if (location == null || location.isBlank()) location = row.leadName();
+    return Projects.builder()
+        .id(row.id())
+        .projectName(row.projectName())
+        .overview(row.overview())
+        .payments(row.payments())
+        .projectStatus(row.projectStatus())
+        .invoiceStatus(row.invoiceStatus())
+        .quickbooks(row.quickbooks())
+        .startDate(toLocalDate(row.startDate()))
+        .endDate(toLocalDate(row.endDate()))
+        .leadId(row.leadId())
+        .leadName(row.leadName())
+        .leadNumber(row.leadNumber())
+        .location(location)
+        .contactName(row.contactName())
+        .customerName(row.contactName())
+        .build();
+  }
 
-    LeadsEntity lead = entity.getLead();
-    if (lead != null) {
-      builder
-          .leadId(lead.getId())
-          .leadName(lead.getName())
-          .leadNumber(lead.getLeadNumber());
-      String location = null;
-      try { location = lead.getLocation(); } catch (Exception ignored) {}
-      if (location == null || location.isBlank()) location = lead.getName();
-      builder.location(location);
-      try {
-        ContactsEntity c = lead.getContact();
-        if (c != null) {
-          builder.contactName(c.getName());
-          builder.customerName(c.getName());
-        }
-      } catch (Exception e) {
-        log.debug("Contact not loaded for lead {}", lead.getId());
-      }
-    }
-    return builder.build();
+  private static LocalDate toLocalDate(Date d) {
+    return d == null ? null : d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
   }
 }
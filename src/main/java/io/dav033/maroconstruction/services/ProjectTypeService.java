@@ -5,8 +5,14 @@ import io.dav033.maroconstruction.mappers.ProjectTypeMapper;
 import io.dav033.maroconstruction.models.ProjectTypeEntity;
 import io.dav033.maroconstruction.repositories.ProjectTypeRepository;
 import io.dav033.maroconstruction.services.base.BaseService;
+import io.dav033.maroconstruction.config.ReferenceDataCacheConfig;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 public class ProjectTypeService
@@ -23,4 +29,47 @@ public class ProjectTypeService
     ) {
         super(repository, mapper);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, key = "'all'")
+    public List<ProjectType> findAll() {
+        // La lista cacheada se comparte entre llamadas: inmutable para que nadie la altere
+        return List.copyOf(super.findAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, key = "#id")
+    public ProjectType findById(Long id) {
+        return super.findById(id);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, allEntries = true)
+    public ProjectType create(ProjectType dto) {
+        return super.create(dto);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, allEntries = true)
+    public ProjectType update(Long id, ProjectType dto) {
+        return super.update(id, dto);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, allEntries = true)
+    public void delete(Long id) {
+        super.delete(id);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ReferenceDataCacheConfig.PROJECT_TYPES, allEntries = true)
+    public List<ProjectType> saveAll(List<ProjectType> dtos) {
+        return super.saveAll(dtos);
+    }
 }
@@ -0,0 +1,53 @@
+-- Base tables that used to be created by Hibernate (ddl-auto=update) and never had a migration.
+-- IF NOT EXISTS throughout: on databases created that way Flyway baselines at 0 and re-runs every
+-- migration, so this file must be a no-op there. Later columns (contacts.is_client, contacts.company_id,
+-- leads.lead_number_prefix/period, jsonb notes...) are added by their own migrations.
+
+CREATE TABLE IF NOT EXISTS project_type (
+    id BIGSERIAL PRIMARY KEY,
+    name TEXT,
+    color TEXT
+);
+
+CREATE TABLE IF NOT EXISTS company_services (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    color VARCHAR(7)
+);
+
+CREATE TABLE IF NOT EXISTS contacts (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    occupation VARCHAR(100),
+    phone VARCHAR(50),
+    email VARCHAR(100),
+    address VARCHAR(255),
+    is_customer BOOLEAN NOT NULL DEFAULT false,
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS leads (
+    id BIGSERIAL PRIMARY KEY,
+    lead_number VARCHAR(50) NOT NULL UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    start_date DATE NOT NULL,
+    location VARCHAR(255),
+    status TEXT,
+    lead_type TEXT,
+    contact_id BIGINT REFERENCES contacts(id),
+    type BIGINT REFERENCES project_type(id),
+    notes TEXT
+);
+
+CREATE TABLE IF NOT EXISTS projects (
+    id BIGSERIAL PRIMARY KEY,
+    project_name VARCHAR(100) NOT NULL,
+    overview TEXT,
+    payments NUMERIC[],
+    project_status VARCHAR(255),
+    invoice_status VARCHAR(255),
+    quickbooks BOOLEAN,
+    start_date TIMESTAMP(6),
+    end_date TIMESTAMP(6),
+    lead_id BIGINT REFERENCES leads(id)
+);
@@ -0,0 +1,24 @@
+-- Transactional outbox for ClickUp synchronization
+-- Rows are written in the same transaction as the lead change and drained by ClickUpOutboxDispatcher
+
+CREATE TABLE IF NOT EXISTS clickup_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    lead_id BIGINT NOT NULL,
+    lead_number VARCHAR(50),
+    lead_type TEXT,
+    operation VARCHAR(16) NOT NULL CHECK (operation IN ('CREATE', 'UPDATE', 'DELETE')),
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'IN_PROGRESS', 'DONE', 'DEAD')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Claim query: pending rows ordered by id, filtered by next_attempt_at
+CREATE INDEX IF NOT EXISTS idx_clickup_outbox_status_next_attempt ON clickup_outbox(status, next_attempt_at);
+-- Per-lead ordering check (NOT EXISTS on earlier pending events of the same lead)
+CREATE INDEX IF NOT EXISTS idx_clickup_outbox_lead_id ON clickup_outbox(lead_id);
+
+COMMENT ON TABLE clickup_outbox IS 'Pending ClickUp sync operations for leads (transactional outbox)';
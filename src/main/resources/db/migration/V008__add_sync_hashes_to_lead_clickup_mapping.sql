@@ -0,0 +1,3 @@
+-- Last pushed state per lead/task, used to send only changed fields to ClickUp
+ALTER TABLE lead_clickup_mapping ADD COLUMN IF NOT EXISTS task_hash VARCHAR(64);
+ALTER TABLE lead_clickup_mapping ADD COLUMN IF NOT EXISTS field_hashes TEXT;
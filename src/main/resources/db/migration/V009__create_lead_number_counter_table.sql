@@ -0,0 +1,18 @@
+-- Per-type lead number counter used by LeadNumberAllocator (atomic UPDATE ... RETURNING per create)
+CREATE TABLE IF NOT EXISTS lead_number_counter (
+    lead_type TEXT PRIMARY KEY,
+    last_value INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Seed from existing leads so generated numbers continue after the current highest prefix
+INSERT INTO lead_number_counter (lead_type, last_value)
+SELECT l.lead_type, MAX(CAST(SUBSTRING(l.lead_number, 1, 3) AS INTEGER))
+FROM leads l
+WHERE l.lead_type IS NOT NULL
+  AND ((l.lead_type = 'PLUMBING' AND l.lead_number ~ '^\d{3}P-\d{4}$')
+    OR (l.lead_type <> 'PLUMBING' AND l.lead_number ~ '^\d{3}-\d{4}$'))
+GROUP BY l.lead_type
+ON CONFLICT (lead_type) DO NOTHING;
+
+COMMENT ON TABLE lead_number_counter IS 'Last allocated numeric lead number prefix per lead type';
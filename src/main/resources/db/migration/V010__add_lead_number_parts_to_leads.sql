@@ -0,0 +1,13 @@
+-- Numeric prefix and MMyy suffix of lead_number, kept in sync by LeadsEntity on insert/update.
+-- /leads/validate/lead-number checks the prefix with one indexed lookup instead of scanning every lead number
+ALTER TABLE leads ADD COLUMN IF NOT EXISTS lead_number_prefix VARCHAR(3);
+ALTER TABLE leads ADD COLUMN IF NOT EXISTS lead_number_period VARCHAR(4);
+
+UPDATE leads
+SET lead_number_prefix = SUBSTRING(lead_number, 1, 3),
+    lead_number_period = RIGHT(lead_number, 4)
+WHERE lead_number ~ '^\d{3}P?-\d{4}$'
+  AND (lead_number_prefix IS NULL OR lead_number_period IS NULL);
+
+CREATE INDEX IF NOT EXISTS idx_leads_lead_number_prefix ON leads(lead_number_prefix);
+CREATE INDEX IF NOT EXISTS idx_leads_type_period ON leads(lead_type, lead_number_period);
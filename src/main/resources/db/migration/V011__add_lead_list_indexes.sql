@@ -0,0 +1,7 @@
+-- Keyset pagination of GET /leads on (start_date, id), optionally filtered by type/status
+CREATE INDEX IF NOT EXISTS idx_leads_start_date_id ON leads(start_date, id);
+CREATE INDEX IF NOT EXISTS idx_leads_type_start_date_id ON leads(lead_type, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_leads_status_start_date_id ON leads(status, start_date, id);
+-- Contact / project type filters (also used by the FK joins)
+CREATE INDEX IF NOT EXISTS idx_leads_contact_id ON leads(contact_id);
+CREATE INDEX IF NOT EXISTS idx_leads_project_type ON leads(type);
@@ -0,0 +1,28 @@
+-- leads.notes / contacts.notes pass from text to jsonb. The entities keep the raw JSON and parse it lazily.
+-- Empty values become '[]'; text that is not valid JSON is kept as a single-note array instead of failing the migration
+CREATE OR REPLACE FUNCTION pg_temp.notes_text_to_jsonb(v TEXT) RETURNS JSONB AS $$
+BEGIN
+    IF v IS NULL OR btrim(v) = '' OR btrim(v) = 'null' THEN
+        RETURN '[]'::jsonb;
+    END IF;
+    RETURN v::jsonb;
+EXCEPTION WHEN others THEN
+    RETURN jsonb_build_array(v);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only converts columns that are still text, so it can run again on databases baselined by Flyway
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'leads' AND column_name = 'notes' AND data_type <> 'jsonb') THEN
+        ALTER TABLE leads ALTER COLUMN notes TYPE JSONB USING pg_temp.notes_text_to_jsonb(notes);
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'contacts' AND column_name = 'notes' AND data_type <> 'jsonb') THEN
+        ALTER TABLE contacts ALTER COLUMN notes TYPE JSONB USING pg_temp.notes_text_to_jsonb(notes);
+    END IF;
+END $$;
+
+ALTER TABLE leads ALTER COLUMN notes SET DEFAULT '[]'::jsonb;
+ALTER TABLE contacts ALTER COLUMN notes SET DEFAULT '[]'::jsonb;
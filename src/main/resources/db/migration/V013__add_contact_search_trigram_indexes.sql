@@ -0,0 +1,12 @@
+-- Trigram indexes for /contacts/search (prefix + fuzzy typeahead over name, email and phone digits).
+-- The indexed expressions must match ContactsRepository.search exactly
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_contacts_name_trgm
+    ON contacts USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_contacts_email_trgm
+    ON contacts USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_contacts_phone_digits_trgm
+    ON contacts USING gin (regexp_replace(phone, '\D', '', 'g') gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- companies.notes is mapped by CompanyEntity but was only ever created by Hibernate
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS notes TEXT;
+
+-- V004 restricted type to REGULAR/CONTRACTOR; CompanyType has different values, so inserts on a
+-- database built from migrations would fail. The constraint is recreated from the current enum
+ALTER TABLE companies DROP CONSTRAINT IF EXISTS companies_type_check;
+ALTER TABLE companies ADD CONSTRAINT companies_type_check
+    CHECK (type IN ('DESIGN', 'HOA', 'GENERAL_CONTRACTOR', 'SUPPLIER', 'SUBCONTRACTOR', 'OTHER'));
@@ -0,0 +1,272 @@
+package io.dav033.maroconstruction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arranque en frío: cada ejecución es una JVM nueva y se mide el tiempo hasta que
+ * /actuator/health/readiness responde 200 y la latencia de la primera alta de lead
+ * (POST /leads/new-contact?skipClickUpSync=true). Usa la configuración de producción (Flyway + validate)
+ * contra un Postgres de pruebas:
+ *
+ *   mvn test -Dtest=StartupBenchmark -Dbenchmark=true \
+ *       -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/maros_startup -Dbenchmark.db.user=... -Dbenchmark.db.pass=...
+ *
+ * Sin más, compara el classpath de Maven con y sin StartupWarmup. Con -Dbenchmark.jar=target/xxx.jar el
+ * jar se extrae como en el Dockerfile y se añade la ejecución con archivo CDS; si el jar se construyó con
+ * -Pfast-startup también la de AOT + CDS. Los logs de cada JVM quedan en target/startup-benchmark.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/io/dav033/maroconstruction/MaroconstructionApplication__ApplicationContextInitializer.class";
+
+    private final Path workDir = Paths.get("target", "startup-benchmark").toAbsolutePath();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private long projectTypeId;
+
+    private record Scenario(String name, List<String> jvmArgs, List<String> launch, boolean warmup) {}
+
+    private record Result(double readyMs, double firstRequestMs) {}
+
+    @Test
+    void compareStartupModes() throws Exception {
+        Files.createDirectories(workDir);
+        List<String> classpath = List.of("-cp", System.getProperty("java.class.path"),
+                MaroconstructionApplication.class.getName());
+
+        // Primera JVM descartada: aplica las migraciones de Flyway y deja el tipo de proyecto sembrado
+        int primePort = freePort();
+        Process prime = launch("prime", new Scenario("prime", List.of(), classpath, false), primePort);
+        awaitReady(prime, primePort);
+        stop(prime);
+        projectTypeId = seedProjectType();
+
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("base", List.of(), classpath, false));
+        scenarios.add(new Scenario("warm-up", List.of(), classpath, true));
+
+        String jar = System.getProperty("benchmark.jar");
+        if (jar != null) {
+            Path extracted = extract(Paths.get(jar).toAbsolutePath());
+            List<String> launch = List.of("-jar", extracted.toString());
+            scenarios.add(new Scenario("cds+warm-up",
+                    List.of("-XX:SharedArchiveFile=" + train("cds", List.of(), launch)), launch, true));
+            if (hasAotContext(Paths.get(jar))) {
+                List<String> aot = List.of("-Dspring.aot.enabled=true");
+                List<String> jvmArgs = new ArrayList<>(aot);
+                jvmArgs.add("-XX:SharedArchiveFile=" + train("aot", aot, launch));
+                scenarios.add(new Scenario("aot+cds+warm-up", jvmArgs, launch, true));
+            }
+        }
+
+        System.out.printf("%-18s %16s %20s%n", "modo", "ready p50 ms", "1ª petición p50 ms");
+        for (Scenario scenario : scenarios) {
+            double[] ready = new double[RUNS];
+            double[] first = new double[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                Result result = measure(scenario, i);
+                ready[i] = result.readyMs();
+                first[i] = result.firstRequestMs();
+            }
+            System.out.printf("%-18s %16.0f %20.1f%n", scenario.name(), median(ready), median(first));
+        }
+    }
+
+    private Result measure(Scenario scenario, int run) throws Exception {
+        int port = freePort();
+        long t0 = System.nanoTime();
+        Process process = launch(scenario.name() + "-" + run, scenario, port);
+        try {
+            awaitReady(process, port);
+            double readyMs = (System.nanoTime() - t0) / 1e6;
+
+            long t1 = System.nanoTime();
+            HttpResponse<String> res = http.send(createRequest(port, scenario.name() + "-" + run),
+                    HttpResponse.BodyHandlers.ofString());
+            double firstMs = (System.nanoTime() - t1) / 1e6;
+            assertEquals(200, res.statusCode(), res.body());
+            return new Result(readyMs, firstMs);
+        } finally {
+            stop(process);
+        }
+    }
+
+    /** Ejecución de entrenamiento: arranca hasta el refresh con el warm-up activo y vuelca el archivo CDS. */
+    private Path train(String name, List<String> jvmArgs, List<String> launch) throws Exception {
+        Path archive = workDir.resolve(name + ".jsa");
+        Files.deleteIfExists(archive);
+        List<String> args = new ArrayList<>(jvmArgs);
+        args.add("-XX:ArchiveClassesAtExit=" + archive);
+        args.add("-Dspring.context.exit=onRefresh");
+        Process process = launch("train-" + name, new Scenario(name, args, launch, true), freePort());
+        assertTrue(process.waitFor(READY_TIMEOUT.toSeconds(), TimeUnit.SECONDS), "El entrenamiento CDS no terminó");
+        assertTrue(Files.exists(archive), "No se generó " + archive + " (ver train-" + name + ".log)");
+        return archive;
+    }
+
+    private Process launch(String label, Scenario scenario, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(scenario.jvmArgs());
+        command.addAll(scenario.launch());
+        command.add("--server.port=" + port);
+        command.add("--startup.warmup.enabled=" + scenario.warmup());
+        command.addAll(applicationArgs());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(label + ".log").toFile())
+                .start();
+    }
+
+    /** Sustituye los placeholders sin valor por defecto; ClickUp apunta a un puerto sin servicio y no se llama. */
+    private static List<String> applicationArgs() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + dbUrl(),
+                "--spring.datasource.username=" + dbUser(),
+                "--spring.datasource.password=" + dbPass(),
+                "--clickup.api-url=http://127.0.0.1:9",
+                "--clickup.access-token=benchmark",
+                "--clickup.client-id=benchmark",
+                "--clickup.client-secret=benchmark",
+                "--clickup.team-id=benchmark",
+                "--clickup.space-id=benchmark",
+                "--clickup.list-id=benchmark",
+                "--clickup.outbox.poll-interval-ms=3600000",
+                "--supabase.webhook.secret=benchmark"));
+        for (String type : List.of("CONSTRUCTION", "PLUMBING")) {
+            String prefix = "--clickup.routes.map." + type;
+            args.add(prefix + ".list-id=bench-" + type.toLowerCase());
+            args.add(prefix + ".fields.leadNumberId=cf-lead-number");
+            args.add(prefix + ".fields.contactNameId=cf-contact-name");
+            args.add(prefix + ".fields.customerNameId=cf-customer-name");
+            args.add(prefix + ".fields.emailId=cf-email");
+            args.add(prefix + ".fields.phoneTextId=cf-phone");
+            args.add(prefix + ".fields.locationTextId=cf-location");
+        }
+        return args;
+    }
+
+    private void awaitReady(Process process, int port) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (true) {
+            assertTrue(process.isAlive(), "La aplicación terminó antes de estar lista (ver logs en " + workDir + ")");
+            assertTrue(System.nanoTime() < deadline, "La aplicación no llegó a readiness a tiempo");
+            try {
+                if (http.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Tomcat aún no escucha
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Path extract(Path jar) throws Exception {
+        Path destination = workDir.resolve("application");
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", destination.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("extract.log").toFile())
+                .start();
+        assertEquals(0, process.waitFor(), "Falló la extracción del jar (ver extract.log)");
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static boolean hasAotContext(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static long seedProjectType() throws Exception {
+        try (Connection connection = DriverManager.getConnection(dbUrl(), dbUser(), dbPass());
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT id FROM project_type WHERE name = 'Benchmark'")) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(
+                    "INSERT INTO project_type (name, color) VALUES ('Benchmark', '#000000') RETURNING id")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private HttpRequest createRequest(int port, String run) {
+        String suffix = run + "-" + System.nanoTime();
+        String body = """
+                {"lead":{"location":"Calle %s","leadType":"CONSTRUCTION","projectType":{"id":%d}},
+                 "contact":{"name":"Startup %s","email":"startup-%s@example.com","phone":"555-0100"}}
+                """.formatted(suffix, projectTypeId, suffix, suffix);
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/leads/new-contact?skipClickUpSync=true"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String dbUrl() {
+        return System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/maros_startup");
+    }
+
+    private static String dbUser() {
+        return System.getProperty("benchmark.db.user", "postgres");
+    }
+
+    private static String dbPass() {
+        return System.getProperty("benchmark.db.pass", "postgres");
+    }
+}
@@ -0,0 +1,169 @@
+package io.dav033.maroconstruction.config;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara el RestTemplate sin pool (SimpleClientHttpRequestFactory) con el cliente de ClickUp configurado
+ * contra un stub HTTPS local con latencia fija, como api.clickup.com. Además del throughput cuenta las
+ * conexiones TLS que acepta el stub (una por handshake): es lo que ahorra reutilizar conexiones del pool.
+ * El certificado autofirmado se genera con keytool y se usa como truststore de la JVM de la prueba.
+ * No forma parte del build normal:
+ *
+ *   mvn test -Dtest=ClickUpHttpClientBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ClickUpHttpClientBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 100;
+    private static final long STUB_LATENCY_MS = 5;
+    private static final byte[] BODY = "{\"tasks\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final String PASSWORD = "benchmark";
+
+    private static final AtomicInteger tlsConnections = new AtomicInteger();
+    private static HttpsServer server;
+    private static String url;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        Path keystore = selfSignedKeystore();
+        // Los dos clientes usan el SSLContext por defecto: se confía en el certificado del stub
+        System.setProperty("javax.net.ssl.trustStore", keystore.toString());
+        System.setProperty("javax.net.ssl.trustStorePassword", PASSWORD);
+        System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keystore)) {
+            ks.load(in, PASSWORD.toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, PASSWORD.toCharArray());
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(kmf.getKeyManagers(), null, null);
+
+        server = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverContext) {
+            @Override
+            public void configure(HttpsParameters params) {
+                // Se invoca una vez por conexión aceptada, antes del handshake
+                tlsConnections.incrementAndGet();
+                params.setSSLParameters(getSSLContext().getDefaultSSLParameters());
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(64));
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.start();
+        url = "https://127.0.0.1:" + server.getAddress().getPort() + "/api/v2/list/1/task";
+    }
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void compareClients() throws Exception {
+        ClickUpHttpProperties props = new ClickUpHttpProperties();
+        props.setMaxConnections(THREADS);
+        props.setMaxConnectionsPerRoute(THREADS);
+
+        // Calentamiento (JIT y handshakes iniciales) con instancias que no se miden
+        run("warm-up bare", new RestTemplate());
+        run("warm-up pooled", RestTemplateConfig.createRestTemplate(props, null));
+
+        Result bare = run("bare RestTemplate", new RestTemplate());
+        Result pooled = run("pooled (APACHE)", RestTemplateConfig.createRestTemplate(props, null));
+
+        System.out.printf("%n%-20s %10s %10s %10s %16s%n", "client", "req/s", "p50 ms", "p99 ms", "conexiones TLS");
+        for (Result r : List.of(bare, pooled)) {
+            System.out.printf("%-20s %10.0f %10.2f %10.2f %16d%n", r.name, r.throughput, r.p50Ms, r.p99Ms, r.tlsConnections);
+        }
+        assertEquals(THREADS * REQUESTS_PER_THREAD, pooled.count);
+    }
+
+    private Result run(String name, RestTemplate client) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long[] latencies = new long[THREADS * REQUESTS_PER_THREAD];
+        List<Future<?>> futures = new ArrayList<>();
+        int connectionsBefore = tlsConnections.get();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * REQUESTS_PER_THREAD;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    long t0 = System.nanoTime();
+                    client.getForObject(url, String.class);
+                    latencies[offset + i] = System.nanoTime() - t0;
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        Arrays.sort(latencies);
+        return new Result(name,
+                latencies.length,
+                latencies.length / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6,
+                tlsConnections.get() - connectionsBefore);
+    }
+
+    /** Certificado autofirmado para 127.0.0.1 (SAN de IP para que pase la verificación de hostname). */
+    private static Path selfSignedKeystore() throws Exception {
+        Path dir = Files.createTempDirectory("clickup-tls-bench");
+        Path keystore = dir.resolve("stub.p12");
+        Process keytool = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=127.0.0.1", "-ext", "san=ip:127.0.0.1", "-validity", "1",
+                "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD)
+                .inheritIO()
+                .start();
+        assertEquals(0, keytool.waitFor(), "keytool no pudo generar el certificado del stub");
+        keystore.toFile().deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return keystore;
+    }
+
+    private record Result(String name, int count, double throughput, double p50Ms, double p99Ms, int tlsConnections) {}
+}
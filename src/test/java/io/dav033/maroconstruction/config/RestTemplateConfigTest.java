@@ -0,0 +1,76 @@
+package io.dav033.maroconstruction.config;
+
+import io.dav033.maroconstruction.services.ClickUpCircuitBreaker;
+import io.dav033.maroconstruction.services.ClickUpRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/** Orden de los interceptores de ClickUp: la espera del rate limiter no debe retener permisos del bulkhead. */
+class RestTemplateConfigTest {
+
+    private static final String URL = "http://clickup.test/api/v2/list/1/task";
+
+    @Test
+    void callsWaitingForATokenDoNotHoldTheBulkhead() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ClickUpHttpProperties httpProps = new ClickUpHttpProperties();
+        // 10 tokens por segundo: con el bucket vacío cada llamada espera ~100ms más que la anterior
+        httpProps.setRateLimitPerMinute(600);
+        httpProps.setRateLimitMaxWaitMs(5_000);
+        ClickUpRateLimiter rateLimiter = new ClickUpRateLimiter(httpProps, registry);
+        ClickUpResilienceProperties resilienceProps = new ClickUpResilienceProperties();
+        resilienceProps.setMaxConcurrentCalls(1);
+        resilienceProps.setBulkheadMaxWaitMs(0);
+        ClickUpCircuitBreaker circuitBreaker = new ClickUpCircuitBreaker(resilienceProps, registry);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<MeterRegistry> noRegistry = mock(ObjectProvider.class);
+
+        RestTemplate restTemplate = new RestTemplateConfig().restTemplate(httpProps, noRegistry, circuitBreaker, rateLimiter);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        server.expect(ExpectedCount.times(3), requestTo(URL)).andRespond(withSuccess());
+
+        // Bucket saturado: ClickUp dice que no queda presupuesto
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", "0");
+        rateLimiter.onResponse(200, headers);
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(pool.submit(() -> {
+                start.await();
+                return restTemplate.getForEntity(URL, String.class);
+            }));
+        }
+        start.countDown();
+        for (Future<?> call : calls) {
+            // Con el circuit breaker delante, la primera llamada esperaría su token con el único permiso
+            // y las demás saldrían con ClickUpCallNotPermittedException
+            call.get();
+        }
+        pool.shutdown();
+
+        server.verify();
+        assertEquals(0.0, registry.get("clickup.circuit.rejected").tag("reason", "bulkhead").counter().count());
+        assertEquals(0, circuitBreaker.snapshot().get("inFlight"));
+    }
+}
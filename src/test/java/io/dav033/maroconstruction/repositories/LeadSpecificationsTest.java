@@ -0,0 +1,176 @@
+package io.dav033.maroconstruction.repositories;
+
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.ProjectTypeEntity;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Filtros y keyset (start_date, id) del listado paginado de leads, contra H2. */
+@DataJpaTest
+@ActiveProfiles("test")
+class LeadSpecificationsTest {
+
+    private static final LocalDate D1 = LocalDate.of(2026, 1, 10);
+    private static final LocalDate D2 = LocalDate.of(2026, 1, 20);
+    private static final LocalDate D3 = LocalDate.of(2026, 2, 5);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LeadsRepository repository;
+
+    private ProjectTypeEntity roof;
+    private ContactsEntity ana;
+    private final List<LeadsEntity> leads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        roof = new ProjectTypeEntity();
+        roof.setName("Roof");
+        roof.setColor("#f00");
+        em.persist(roof);
+        ana = new ContactsEntity();
+        ana.setName("Ana");
+        em.persist(ana);
+
+        // Varios leads por fecha: el keyset tiene que desempatar por id
+        lead("001-0126", D2, LeadStatus.IN_PROGRESS, LeadType.CONSTRUCTION, ana, roof);
+        lead("002-0126", D1, LeadStatus.NOT_EXECUTED, LeadType.ROOFING, null, roof);
+        lead("003-0126", D2, LeadStatus.NOT_EXECUTED, LeadType.CONSTRUCTION, null, null);
+        lead("004P-0126", D3, LeadStatus.COMPLETED, LeadType.PLUMBING, ana, null);
+        lead("005-0126", D2, LeadStatus.IN_PROGRESS, LeadType.CONSTRUCTION, null, roof);
+        lead("006-0126", D1, LeadStatus.LOST, LeadType.CONSTRUCTION, ana, null);
+        lead("007-0126", D3, LeadStatus.IN_PROGRESS, LeadType.ROOFING, null, null);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void keysetWalksEveryRowOnceInAscendingOrder() {
+        Comparator<LeadsEntity> order = Comparator.comparing(LeadsEntity::getStartDate).thenComparing(LeadsEntity::getId);
+
+        assertEquals(ids(leads.stream().sorted(order).toList()), walk(true, null, 3));
+    }
+
+    @Test
+    void keysetWalksEveryRowOnceInDescendingOrder() {
+        Comparator<LeadsEntity> order = Comparator.comparing(LeadsEntity::getStartDate).thenComparing(LeadsEntity::getId).reversed();
+
+        assertEquals(ids(leads.stream().sorted(order).toList()), walk(false, null, 2));
+    }
+
+    @Test
+    void keysetCombinesWithFilters() {
+        List<Long> expected = ids(leads.stream()
+                .filter(l -> l.getLeadType() == LeadType.CONSTRUCTION)
+                .sorted(Comparator.comparing(LeadsEntity::getStartDate).thenComparing(LeadsEntity::getId))
+                .toList());
+
+        assertEquals(expected, walk(true, LeadSpecifications.hasType(LeadType.CONSTRUCTION), 1));
+    }
+
+    @Test
+    void nullParametersDoNotFilter() {
+        Specification<LeadsEntity> spec = Specification.allOf(
+                LeadSpecifications.hasStatus(null),
+                LeadSpecifications.hasType(null),
+                LeadSpecifications.hasProjectType(null),
+                LeadSpecifications.hasContact(null),
+                LeadSpecifications.startDateBetween(null, null),
+                LeadSpecifications.after(null, null, true));
+
+        assertEquals(leads.size(), repository.count(spec));
+    }
+
+    @Test
+    void filtersMatchTheirColumn() {
+        assertEquals(3, repository.count(LeadSpecifications.hasStatus(LeadStatus.IN_PROGRESS)));
+        assertEquals(2, repository.count(LeadSpecifications.hasType(LeadType.ROOFING)));
+        assertEquals(3, repository.count(LeadSpecifications.hasProjectType(roof.getId())));
+        assertEquals(3, repository.count(LeadSpecifications.hasContact(ana.getId())));
+    }
+
+    @Test
+    void startDateBetweenIsInclusiveAndOpenEnded() {
+        assertEquals(3, repository.count(LeadSpecifications.startDateBetween(D2, D2)));
+        assertEquals(5, repository.count(LeadSpecifications.startDateBetween(D2, null)));
+        assertEquals(5, repository.count(LeadSpecifications.startDateBetween(null, D2)));
+        assertEquals(0, repository.count(LeadSpecifications.startDateBetween(D3.plusDays(1), null)));
+    }
+
+    @Test
+    void withRelationsFetchesOnSelectsAndIsIgnoredOnCounts() {
+        Specification<LeadsEntity> spec = Specification.allOf(
+                LeadSpecifications.withRelations(), LeadSpecifications.hasContact(ana.getId()));
+
+        assertEquals(3, repository.count(spec));
+        List<LeadsEntity> rows = repository.findAll(spec);
+        em.clear();
+        assertEquals(3, rows.size());
+        rows.forEach(l -> {
+            assertTrue(Hibernate.isInitialized(l.getContact()));
+            assertTrue(l.getProjectType() == null || Hibernate.isInitialized(l.getProjectType()));
+        });
+        assertEquals("Roof", rows.stream().filter(l -> l.getProjectType() != null).findFirst().orElseThrow()
+                .getProjectType().getName());
+    }
+
+    /** Recorre el listado como lo hace LeadsService: limit + 1 filas por página y keyset desde la última. */
+    private List<Long> walk(boolean ascending, Specification<LeadsEntity> filter, int limit) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, "startDate").and(Sort.by(direction, "id"));
+        List<Long> seen = new ArrayList<>();
+        LeadsEntity last = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            Specification<LeadsEntity> spec = Specification.allOf(
+                    LeadSpecifications.withRelations(),
+                    filter,
+                    last != null ? LeadSpecifications.after(last.getStartDate(), last.getId(), ascending) : null);
+            List<LeadsEntity> rows = repository.findBy(spec, q -> q.sortBy(sort).limit(limit + 1).all());
+            hasMore = rows.size() > limit;
+            if (hasMore) {
+                rows = rows.subList(0, limit);
+            }
+            rows.forEach(l -> seen.add(l.getId()));
+            last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        }
+        return seen;
+    }
+
+    private void lead(String number, LocalDate startDate, LeadStatus status, LeadType type,
+                      ContactsEntity contact, ProjectTypeEntity projectType) {
+        LeadsEntity lead = new LeadsEntity();
+        lead.setLeadNumber(number);
+        lead.setName(number + "-Ocean Dr");
+        lead.setStartDate(startDate);
+        lead.setStatus(status);
+        lead.setLeadType(type);
+        lead.setContact(contact);
+        lead.setProjectType(projectType);
+        leads.add(em.persist(lead));
+    }
+
+    private static List<Long> ids(List<LeadsEntity> rows) {
+        return rows.stream().map(LeadsEntity::getId).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package io.dav033.maroconstruction.repositories;
+
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Comprobación de prefijo de /leads/validate/lead-number, con y sin la columna derivada rellenada. */
+@DataJpaTest
+@ActiveProfiles("test")
+class LeadsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LeadsRepository repository;
+
+    @Test
+    void prefixSavedThroughTheEntityIsFound() {
+        lead("042-0126", LeadType.CONSTRUCTION);
+        lead("017P-0226", LeadType.PLUMBING);
+
+        assertTrue(repository.existsByLeadNumberPrefix("042"));
+        assertTrue(repository.existsByLeadNumberPrefix("017"));
+        assertFalse(repository.existsByLeadNumberPrefix("043"));
+    }
+
+    @Test
+    void rowsWithoutDerivedPrefixFallBackToTheLeadNumber() {
+        lead("042-0126", LeadType.CONSTRUCTION);
+        lead("017P-0226", LeadType.PLUMBING);
+        lead("050 manual", LeadType.ROOFING);
+        // Como una fila anterior al backfill de V010 o insertada sin pasar por LeadsEntity
+        em.getEntityManager().createNativeQuery("UPDATE leads SET lead_number_prefix = NULL, lead_number_period = NULL")
+                .executeUpdate();
+        em.clear();
+
+        assertTrue(repository.existsByLeadNumberPrefix("042"));
+        assertTrue(repository.existsByLeadNumberPrefix("017"));
+        assertFalse(repository.existsByLeadNumberPrefix("043"));
+        assertFalse(repository.existsByLeadNumberPrefix("050"), "Sin formato NNN-MMyy no ocupa prefijo");
+    }
+
+    private void lead(String number, LeadType type) {
+        LeadsEntity lead = new LeadsEntity();
+        lead.setLeadNumber(number);
+        lead.setName(number);
+        lead.setStartDate(LocalDate.of(2026, 1, 15));
+        lead.setLeadType(type);
+        em.persistAndFlush(lead);
+    }
+}
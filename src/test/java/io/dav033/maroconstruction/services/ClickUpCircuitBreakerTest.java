@@ -0,0 +1,161 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.config.ClickUpResilienceProperties;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Transiciones del circuito (CLOSED → OPEN → HALF_OPEN → CLOSED/OPEN) y vida de los permisos del bulkhead. */
+class ClickUpCircuitBreakerTest {
+
+    private static final MockClientHttpRequest REQUEST =
+            new MockClientHttpRequest(HttpMethod.GET, URI.create("http://clickup.test/api/v2/list/1/task"));
+    private static final long OPEN_MS = 50;
+
+    private ClickUpResilienceProperties props;
+    private final AtomicInteger executed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        props = new ClickUpResilienceProperties();
+        props.setSlidingWindowSize(4);
+        props.setMinimumCalls(4);
+        props.setFailureRateThreshold(50);
+        props.setOpenDurationMs(OPEN_MS);
+        props.setHalfOpenProbes(2);
+        props.setMaxConcurrentCalls(2);
+        props.setBulkheadMaxWaitMs(0);
+    }
+
+    private ClickUpCircuitBreaker breaker() {
+        return new ClickUpCircuitBreaker(props, new SimpleMeterRegistry());
+    }
+
+    private ClientHttpRequestExecution respond(HttpStatus status) {
+        return (request, body) -> {
+            executed.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private static void call(ClickUpCircuitBreaker breaker, ClientHttpRequestExecution execution) throws IOException {
+        breaker.intercept(REQUEST, new byte[0], execution).close();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() throws IOException {
+        ClickUpCircuitBreaker breaker = breaker();
+        call(breaker, respond(HttpStatus.OK));
+        call(breaker, respond(HttpStatus.OK));
+        call(breaker, respond(HttpStatus.BAD_GATEWAY));
+        assertEquals(ClickUpCircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, respond(HttpStatus.SERVICE_UNAVAILABLE));
+        assertEquals(ClickUpCircuitBreaker.State.OPEN, breaker.getState());
+
+        int before = executed.get();
+        ClickUpCallNotPermittedException rejected = assertThrows(ClickUpCallNotPermittedException.class,
+                () -> call(breaker, respond(HttpStatus.OK)));
+        assertEquals(before, executed.get(), "Con el circuito abierto la llamada no debe salir");
+        assertTrue(rejected.getRetryAfterMs() <= OPEN_MS);
+    }
+
+    @Test
+    void clientErrorsAndRateLimitsDoNotOpenTheCircuit() throws IOException {
+        ClickUpCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 8; i++) {
+            call(breaker, respond(i % 2 == 0 ? HttpStatus.NOT_FOUND : HttpStatus.TOO_MANY_REQUESTS));
+        }
+        assertEquals(ClickUpCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void ioErrorsCountAsFailures() {
+        ClickUpCircuitBreaker breaker = breaker();
+        ClientHttpRequestExecution timeout = (request, body) -> {
+            throw new SocketTimeoutException("Read timed out");
+        };
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SocketTimeoutException.class, () -> call(breaker, timeout));
+        }
+        assertEquals(ClickUpCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void successfulProbesCloseTheCircuit() throws Exception {
+        ClickUpCircuitBreaker breaker = openedBreaker();
+        Thread.sleep(OPEN_MS * 2);
+
+        call(breaker, respond(HttpStatus.OK));
+        assertEquals(ClickUpCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        call(breaker, respond(HttpStatus.OK));
+        assertEquals(ClickUpCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws Exception {
+        ClickUpCircuitBreaker breaker = openedBreaker();
+        Thread.sleep(OPEN_MS * 2);
+
+        call(breaker, respond(HttpStatus.OK));
+        call(breaker, respond(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertEquals(ClickUpCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void bulkheadPermitIsHeldUntilTheResponseIsClosed() throws IOException {
+        ClickUpCircuitBreaker breaker = breaker();
+        ClientHttpResponse first = breaker.intercept(REQUEST, new byte[0], respond(HttpStatus.OK));
+        ClientHttpResponse second = breaker.intercept(REQUEST, new byte[0], respond(HttpStatus.OK));
+        assertEquals(2, breaker.snapshot().get("inFlight"));
+
+        // Cabeceras recibidas pero cuerpos sin leer: el bulkhead sigue lleno
+        assertThrows(ClickUpCallNotPermittedException.class,
+                () -> breaker.intercept(REQUEST, new byte[0], respond(HttpStatus.OK)));
+
+        first.close();
+        first.close();
+        assertEquals(1, breaker.snapshot().get("inFlight"));
+        second.close();
+        assertEquals(0, breaker.snapshot().get("inFlight"));
+        call(breaker, respond(HttpStatus.OK));
+    }
+
+    @Test
+    void localRejectionReleasesThePermitWithoutCountingAFailure() {
+        ClickUpCircuitBreaker breaker = breaker();
+        ClientHttpRequestExecution shed = (request, body) -> {
+            throw new ClickUpCallNotPermittedException("rate limit", 1000);
+        };
+        for (int i = 0; i < 8; i++) {
+            assertThrows(ClickUpCallNotPermittedException.class, () -> call(breaker, shed));
+        }
+        assertEquals(0, breaker.snapshot().get("inFlight"));
+        assertEquals(ClickUpCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private ClickUpCircuitBreaker openedBreaker() throws IOException {
+        ClickUpCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, respond(HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+        assertEquals(ClickUpCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
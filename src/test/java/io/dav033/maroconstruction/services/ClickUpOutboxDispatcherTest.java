@@ -0,0 +1,146 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.config.ClickUpOutboxProperties;
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
+import io.dav033.maroconstruction.enums.ClickUpSyncOperation;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import io.dav033.maroconstruction.exceptions.ClickUpException;
+import io.dav033.maroconstruction.mappers.LeadToClickUpTaskMapper;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.ClickUpOutboxEntity;
+import io.dav033.maroconstruction.models.LeadClickUpMapping;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.repositories.ClickUpOutboxRepository;
+import io.dav033.maroconstruction.repositories.LeadClickUpMappingRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reintentos del outbox contra el servicio de sincronización real (ClickUp y repositorios simulados):
+ * un CREATE reintentado no puede dejar dos tareas para el mismo lead.
+ */
+class ClickUpOutboxDispatcherTest {
+
+    private static final LeadType TYPE = LeadType.CONSTRUCTION;
+
+    private ClickUpOutboxRepository outboxRepository;
+    private LeadClickUpMappingRepository mappingRepository;
+    private ClickUpService clickUpService;
+    private ClickUpOutboxDispatcher dispatcher;
+    private ClickUpOutboxEntity event;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(ClickUpOutboxRepository.class);
+        mappingRepository = mock(LeadClickUpMappingRepository.class);
+        clickUpService = mock(ClickUpService.class);
+        LeadsRepository leadsRepository = mock(LeadsRepository.class);
+        LeadsMapper leadsMapper = mock(LeadsMapper.class);
+        LeadToClickUpTaskMapper taskMapper = mock(LeadToClickUpTaskMapper.class);
+        ClickUpCircuitBreaker circuitBreaker = mock(ClickUpCircuitBreaker.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+        LeadClickUpSyncService syncService = new LeadClickUpSyncService(clickUpService, taskMapper, mappingRepository, new ObjectMapper());
+        dispatcher = new ClickUpOutboxDispatcher(outboxRepository, leadsRepository, leadsMapper, syncService,
+                circuitBreaker, new ClickUpOutboxProperties(), transactionManager, new MockEnvironment());
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(circuitBreaker.isCallPermitted()).thenReturn(true);
+        when(clickUpService.isConfigured()).thenReturn(true);
+
+        LeadsEntity entity = new LeadsEntity();
+        entity.setId(1L);
+        Leads lead = new Leads();
+        lead.setId(1L);
+        lead.setLeadNumber("042-0126");
+        lead.setLeadType(TYPE);
+        when(leadsRepository.findByIdWithRelations(1L)).thenReturn(Optional.of(entity));
+        when(leadsMapper.toDto(entity)).thenReturn(lead);
+
+        ClickUpTaskRequest req = new ClickUpTaskRequest();
+        req.setName("042-0126 Ocean Dr");
+        req.setCustomFields(List.of(new ClickUpTaskRequest.CustomField("cf-1", "042-0126")));
+        when(taskMapper.toClickUpTask(any())).thenReturn(req);
+
+        when(mappingRepository.findByLeadId(1L)).thenReturn(Optional.empty());
+        when(mappingRepository.save(any())).thenAnswer(inv -> {
+            LeadClickUpMapping saved = inv.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(20L);
+            }
+            return saved;
+        });
+
+        event = new ClickUpOutboxEntity();
+        event.setId(5L);
+        event.setLeadId(1L);
+        event.setLeadNumber("042-0126");
+        event.setLeadType(TYPE);
+        event.setOperation(ClickUpSyncOperation.CREATE);
+        event.setStatus(OutboxStatus.PENDING);
+        when(outboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(event));
+        when(outboxRepository.findById(5L)).thenReturn(Optional.of(event));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void createRetriedAfterATimeoutUpdatesTheTaskClickUpAlreadyCreated() {
+        // Primer intento: nada en ClickUp, el POST vence por timeout pero la tarea llega a crearse
+        when(clickUpService.findTaskIdByLeadNumber(TYPE, "042-0126")).thenReturn(null, "task-1");
+        when(clickUpService.createTask(eq(TYPE), any())).thenThrow(new ClickUpException("Read timed out"));
+
+        dispatcher.poll();
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+
+        dispatcher.poll();
+
+        verify(clickUpService, times(1)).createTask(eq(TYPE), any());
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-1"), any());
+        verify(mappingRepository, times(2)).save(any());
+        assertEquals(OutboxStatus.DONE, event.getStatus());
+        assertEquals(2, event.getAttempts());
+    }
+
+    @Test
+    void createRetriedWithTheMappingAlreadySavedSkipsTheSearch() {
+        LeadClickUpMapping mapping = new LeadClickUpMapping();
+        mapping.setId(10L);
+        mapping.setLeadId(1L);
+        mapping.setLeadNumber("042-0126");
+        mapping.setClickUpTaskId("task-1");
+        when(mappingRepository.findByLeadId(1L)).thenReturn(Optional.of(mapping));
+
+        dispatcher.poll();
+
+        verify(clickUpService, never()).createTask(any(), any());
+        verify(clickUpService, never()).findTaskIdByLeadNumber(any(LeadType.class), any());
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-1"), any());
+        assertEquals(OutboxStatus.DONE, event.getStatus());
+    }
+}
@@ -0,0 +1,126 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.config.ClickUpHttpProperties;
+import io.dav033.maroconstruction.exceptions.ClickUpCallNotPermittedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Token bucket y lectura de Retry-After / X-RateLimit-* del rate limiter de ClickUp. */
+class ClickUpRateLimiterTest {
+
+    private static final MockClientHttpRequest REQUEST =
+            new MockClientHttpRequest(HttpMethod.POST, URI.create("http://clickup.test/api/v2/task/1/field/cf-1"));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ClickUpRateLimiter limiter(int perMinute, long maxWaitMs) {
+        ClickUpHttpProperties props = new ClickUpHttpProperties();
+        props.setRateLimitPerMinute(perMinute);
+        props.setRateLimitMaxWaitMs(maxWaitMs);
+        return new ClickUpRateLimiter(props, registry);
+    }
+
+    @Test
+    void bucketShedsWithNotPermittedOnceEmpty() {
+        ClickUpRateLimiter limiter = limiter(2, 0);
+        limiter.acquire(REQUEST);
+        limiter.acquire(REQUEST);
+
+        ClickUpCallNotPermittedException shed = assertThrows(ClickUpCallNotPermittedException.class,
+                () -> limiter.acquire(REQUEST));
+        // Con 2 req/min el siguiente token llega en ~30s
+        assertTrue(shed.getRetryAfterMs() > 20_000 && shed.getRetryAfterMs() <= 30_000, "retryAfterMs=" + shed.getRetryAfterMs());
+        assertEquals(1.0, registry.get("clickup.ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void rejectedReservationIsReturnedToTheBucket() {
+        ClickUpRateLimiter limiter = limiter(1, 0);
+        limiter.acquire(REQUEST);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ClickUpCallNotPermittedException.class, () -> limiter.acquire(REQUEST));
+        }
+
+        // Si los descartes consumieran tokens la espera estimada crecería un minuto por intento
+        ClickUpCallNotPermittedException shed = assertThrows(ClickUpCallNotPermittedException.class,
+                () -> limiter.acquire(REQUEST));
+        assertTrue(shed.getRetryAfterMs() <= 60_000, "retryAfterMs=" + shed.getRetryAfterMs());
+        assertEquals(6.0, registry.get("clickup.ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void retryAfterSecondsPausesAllCallers() {
+        ClickUpRateLimiter limiter = limiter(100, 60_000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+
+        limiter.onResponse(429, headers);
+
+        long pause = limiter.pauseRemainingMs();
+        assertTrue(pause > 6_000 && pause <= 7_000, "pause=" + pause);
+        assertEquals(1.0, registry.get("clickup.ratelimit.throttled").counter().count());
+    }
+
+    @Test
+    void rateLimitResetIsUsedWhenRetryAfterIsMissing() {
+        ClickUpRateLimiter limiter = limiter(100, 60_000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 5));
+
+        limiter.onResponse(429, headers);
+
+        long pause = limiter.pauseRemainingMs();
+        assertTrue(pause > 3_000 && pause <= 5_000, "pause=" + pause);
+    }
+
+    @Test
+    void unparseableRetryAfterFallsBackToDefaultPause() {
+        ClickUpRateLimiter limiter = limiter(100, 60_000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2026 07:28:00 GMT");
+
+        limiter.onResponse(429, headers);
+
+        long pause = limiter.pauseRemainingMs();
+        assertTrue(pause > 0 && pause <= 1_000, "pause=" + pause);
+    }
+
+    @Test
+    void serverRemainingCapsTheLocalBudget() {
+        ClickUpRateLimiter limiter = limiter(100, 0);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "100");
+        headers.set("X-RateLimit-Remaining", "1");
+
+        limiter.onResponse(200, headers);
+
+        assertEquals(1.0, registry.get("clickup.ratelimit.remaining").gauge().value());
+        assertDoesNotThrow(() -> limiter.acquire(REQUEST));
+        assertThrows(ClickUpCallNotPermittedException.class, () -> limiter.acquire(REQUEST));
+    }
+
+    @Test
+    void rateLimitLimitHeaderResizesTheBucket() {
+        ClickUpRateLimiter limiter = limiter(100, 0);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "3");
+
+        limiter.onResponse(200, headers);
+
+        assertTrue(registry.get("clickup.ratelimit.budget").gauge().value() <= 3.0);
+        limiter.acquire(REQUEST);
+        limiter.acquire(REQUEST);
+        limiter.acquire(REQUEST);
+        assertThrows(ClickUpCallNotPermittedException.class, () -> limiter.acquire(REQUEST));
+    }
+}
@@ -0,0 +1,117 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.config.ClickUpConfig;
+import io.dav033.maroconstruction.config.ClickUpHttpProperties;
+import io.dav033.maroconstruction.config.ClickUpRoutingService;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.exceptions.ClickUpException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Escritura concurrente de custom fields: forma de los errores según fallen uno, todos o parte de los campos. */
+class ClickUpServiceTest {
+
+    private static final LeadType TYPE = LeadType.CONSTRUCTION;
+
+    private final Map<String, HttpStatus> failures = new ConcurrentHashMap<>();
+    private final Set<String> posted = ConcurrentHashMap.newKeySet();
+    private ClickUpService service;
+
+    @BeforeEach
+    void setUp() {
+        ClickUpConfig config = new ClickUpConfig();
+        config.setApiUrl("http://clickup.test/api/v2");
+        config.setAccessToken("pk_test");
+
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
+                .thenAnswer(inv -> {
+                    String path = inv.<URI>getArgument(0).getPath();
+                    String fieldId = path.substring(path.lastIndexOf('/') + 1);
+                    posted.add(fieldId);
+                    HttpStatus status = failures.get(fieldId);
+                    if (status != null) {
+                        throw HttpClientErrorException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY, new byte[0], null);
+                    }
+                    return ResponseEntity.ok("{}");
+                });
+
+        service = new ClickUpService(new ClickUpUrlBuilder(config), new ClickUpHeadersProvider(config), restTemplate,
+                config, mock(ClickUpRoutingService.class), new ClickUpHttpProperties(), mock(ClickUpRateLimiter.class),
+                new ObjectMapper(), new ClickUpMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void singleField404IsRethrownAsNotFound() {
+        failures.put("cf-1", HttpStatus.NOT_FOUND);
+
+        assertThrows(HttpClientErrorException.NotFound.class,
+                () -> service.updateCustomFields(TYPE, "task-1", fields("cf-1")));
+    }
+
+    @Test
+    void concurrent404OnEveryFieldIsRethrownAsNotFound() {
+        failures.put("cf-1", HttpStatus.NOT_FOUND);
+        failures.put("cf-2", HttpStatus.NOT_FOUND);
+        failures.put("cf-3", HttpStatus.NOT_FOUND);
+
+        HttpClientErrorException.NotFound error = assertThrows(HttpClientErrorException.NotFound.class,
+                () -> service.updateCustomFields(TYPE, "task-1", fields("cf-1", "cf-2", "cf-3")));
+        assertEquals(2, error.getSuppressed().length);
+    }
+
+    @Test
+    void partialFailuresAreAggregatedAfterEveryFieldWasSent() {
+        failures.put("cf-2", HttpStatus.BAD_REQUEST);
+        failures.put("cf-3", HttpStatus.NOT_FOUND);
+
+        ClickUpException error = assertThrows(ClickUpException.class,
+                () -> service.updateCustomFields(TYPE, "task-1", fields("cf-1", "cf-2", "cf-3", "cf-4")));
+        assertTrue(error.getMessage().contains("(2/4)"), error.getMessage());
+        assertTrue(error.getMessage().contains("cf-2") && error.getMessage().contains("cf-3"), error.getMessage());
+        assertEquals(1, error.getSuppressed().length);
+        assertEquals(Set.of("cf-1", "cf-2", "cf-3", "cf-4"), posted);
+    }
+
+    @Test
+    void successfulFieldsDoNotThrow() {
+        service.updateCustomFields(TYPE, "task-1", fields("cf-1", "cf-2"));
+
+        assertEquals(Set.of("cf-1", "cf-2"), posted);
+    }
+
+    private static List<ClickUpTaskRequest.CustomField> fields(String... ids) {
+        return Arrays.stream(ids).map(id -> new ClickUpTaskRequest.CustomField(id, "v-" + id)).toList();
+    }
+}
@@ -0,0 +1,112 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskListResponse.ClickUpTaskSummary;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskListResponse.ClickUpTaskSummary.CustomFieldValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Lectura en streaming de una página de GET list/{id}/task: qué se conserva, qué se salta y last_page. */
+class ClickUpTaskPageParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String PAGE = """
+            {
+              "tasks": [
+                {
+                  "id": "t1",
+                  "name": "042-0126 Ocean Dr",
+                  "description": "texto largo que no se guarda",
+                  "assignees": [{"id": 7, "username": "ana"}],
+                  "url": "https://app.clickup.com/t/t1",
+                  "custom_fields": [
+                    {"id": "cf-lead", "name": "Lead #", "type": "short_text", "value": "042-0126"},
+                    {"id": "cf-drop", "name": "Tipo", "type": "drop_down",
+                     "type_config": {"options": [{"id": "o1", "name": "Roof"}]}, "value": 0},
+                    {"id": "cf-loc", "name": "Location", "type": "location",
+                     "value": {"formatted_address": "Ocean Dr", "location": {"lat": 25.7, "lng": -80.1}}}
+                  ]
+                },
+                {"id": "t2", "name": "043-0126", "custom_fields": null}
+              ],
+              "last_page": true
+            }
+            """;
+
+    @Test
+    void keepsSummaryAndOnlyTheRequestedFields() throws IOException {
+        ClickUpTaskPageParser.Page page = parse(PAGE, Set.of("cf-lead", "cf-loc"));
+
+        assertTrue(page.lastPage());
+        assertEquals(2, page.tasks().size());
+        ClickUpTaskSummary first = page.tasks().get(0);
+        assertEquals("t1", first.getId());
+        assertEquals("042-0126 Ocean Dr", first.getName());
+        assertEquals("https://app.clickup.com/t/t1", first.getUrl());
+        assertNull(first.getDescription(), "description se salta sin materializar");
+        assertEquals(List.of("cf-lead", "cf-loc"), ids(first.getCustomFields()));
+        assertEquals("042-0126", first.getCustomFields().get(0).getValue());
+        assertEquals("Ocean Dr", ((Map<?, ?>) first.getCustomFields().get(1).getValue()).get("formatted_address"));
+
+        ClickUpTaskSummary second = page.tasks().get(1);
+        assertEquals("t2", second.getId());
+        assertNull(second.getCustomFields());
+    }
+
+    @Test
+    void nullKeepsEveryFieldAndEmptyKeepsNone() throws IOException {
+        assertEquals(List.of("cf-lead", "cf-drop", "cf-loc"), ids(parse(PAGE, null).tasks().get(0).getCustomFields()));
+        assertTrue(parse(PAGE, Set.of()).tasks().get(0).getCustomFields().isEmpty());
+    }
+
+    @Test
+    void fieldIdAfterTheValueIsStillFiltered() throws IOException {
+        String json = """
+                {"tasks": [{"id": "t1", "custom_fields": [
+                  {"value": "x", "id": "cf-drop"},
+                  {"value": "042-0126", "id": "cf-lead"}
+                ]}]}
+                """;
+
+        List<CustomFieldValue> fields = parse(json, Set.of("cf-lead")).tasks().get(0).getCustomFields();
+
+        assertEquals(List.of("cf-lead"), ids(fields));
+        assertEquals("042-0126", fields.get(0).getValue());
+    }
+
+    @Test
+    void lastPageIsReadWhereverItAppears() throws IOException {
+        assertTrue(parse("{\"last_page\": true, \"tasks\": [{\"id\": \"t1\"}]}", null).lastPage());
+        assertFalse(parse("{\"tasks\": [{\"id\": \"t1\"}], \"last_page\": false}", null).lastPage());
+        assertFalse(parse("{\"tasks\": [{\"id\": \"t1\"}]}", null).lastPage(), "Sin last_page se sigue paginando");
+    }
+
+    @Test
+    void unexpectedBodyEndsThePaging() throws IOException {
+        ClickUpTaskPageParser.Page page = parse("[]", null);
+
+        assertTrue(page.lastPage());
+        assertTrue(page.tasks().isEmpty());
+    }
+
+    private static ClickUpTaskPageParser.Page parse(String json, Set<String> fieldIds) throws IOException {
+        try (JsonParser p = MAPPER.createParser(json)) {
+            return ClickUpTaskPageParser.parse(p, fieldIds);
+        }
+    }
+
+    private static List<String> ids(List<CustomFieldValue> fields) {
+        return fields.stream().map(CustomFieldValue::getId).toList();
+    }
+}
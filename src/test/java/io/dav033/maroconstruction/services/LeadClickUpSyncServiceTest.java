@@ -0,0 +1,155 @@
+package io.dav033.maroconstruction.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.dto.webhook.ClickUpTaskRequest;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.mappers.LeadToClickUpTaskMapper;
+import io.dav033.maroconstruction.models.LeadClickUpMapping;
+import io.dav033.maroconstruction.repositories.LeadClickUpMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Diff de fingerprints en las actualizaciones de lead: qué se envía a ClickUp según los hashes guardados en
+ * lead_clickup_mapping, y la reparación del mapeo cuando la tarea ya no existe.
+ */
+class LeadClickUpSyncServiceTest {
+
+    private static final LeadType TYPE = LeadType.CONSTRUCTION;
+
+    private ClickUpService clickUpService;
+    private LeadToClickUpTaskMapper taskMapper;
+    private LeadClickUpMappingRepository mappingRepository;
+    private LeadClickUpSyncService syncService;
+    private LeadClickUpMapping mapping;
+    private Leads lead;
+
+    @BeforeEach
+    void setUp() {
+        clickUpService = mock(ClickUpService.class);
+        taskMapper = mock(LeadToClickUpTaskMapper.class);
+        mappingRepository = mock(LeadClickUpMappingRepository.class);
+        syncService = new LeadClickUpSyncService(clickUpService, taskMapper, mappingRepository, new ObjectMapper());
+
+        when(clickUpService.isConfigured()).thenReturn(true);
+        when(mappingRepository.save(any())).thenAnswer(inv -> {
+            LeadClickUpMapping saved = inv.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(20L);
+            }
+            return saved;
+        });
+
+        mapping = new LeadClickUpMapping();
+        mapping.setId(10L);
+        mapping.setLeadId(1L);
+        mapping.setLeadNumber("042-0126");
+        mapping.setClickUpTaskId("task-1");
+        when(mappingRepository.findByLeadId(1L)).thenReturn(Optional.of(mapping));
+
+        lead = new Leads();
+        lead.setId(1L);
+        lead.setLeadNumber("042-0126");
+        lead.setLeadType(TYPE);
+    }
+
+    @Test
+    void firstPushSendsEverythingAndLaterPushesOnlyTheDiff() {
+        when(taskMapper.toClickUpTask(any())).thenReturn(
+                request("042-0126 Ocean Dr", "a", "b"),
+                request("042-0126 Ocean Dr", "a", "b2"),
+                request("042-0126 Ocean Dr", "a", "b2"));
+
+        syncService.pushLeadUpdate(lead);
+        ArgumentCaptor<ClickUpTaskRequest> sent = ArgumentCaptor.forClass(ClickUpTaskRequest.class);
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-1"), sent.capture());
+        assertEquals(List.of("cf-1", "cf-2"), ids(sent.getValue().getCustomFields()));
+
+        // Sólo cambia un campo: sin PUT de la tarea, un único POST de ese campo
+        syncService.pushLeadUpdate(lead);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClickUpTaskRequest.CustomField>> fields = ArgumentCaptor.forClass(List.class);
+        verify(clickUpService).updateCustomFields(eq(TYPE), eq("task-1"), fields.capture());
+        assertEquals(List.of("cf-2"), ids(fields.getValue()));
+        assertEquals("b2", fields.getValue().get(0).getValue());
+
+        // Sin cambios: no se llama a ClickUp
+        syncService.pushLeadUpdate(lead);
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-1"), any());
+        verify(clickUpService).updateCustomFields(eq(TYPE), eq("task-1"), anyList());
+    }
+
+    @Test
+    void retryAfter404SendsAllFieldsToTheRefoundTask() {
+        ClickUpTaskRequest second = request("042-0126 Ocean Dr (renombrado)", "a", "b2");
+        when(taskMapper.toClickUpTask(any())).thenReturn(request("042-0126 Ocean Dr", "a", "b"), second);
+        doNothing()
+                .doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null))
+                .when(clickUpService).updateTask(eq(TYPE), eq("task-1"), any());
+        when(clickUpService.findTaskIdByLeadNumber(TYPE, "042-0126")).thenReturn("task-2");
+
+        syncService.pushLeadUpdate(lead);
+        // Tras el 404 el mapeo se borra y la búsqueda en listas crea uno nuevo, sin hashes
+        when(mappingRepository.findByLeadId(1L)).thenReturn(Optional.of(mapping), Optional.of(mapping), Optional.empty());
+        syncService.pushLeadUpdate(lead);
+
+        ArgumentCaptor<ClickUpTaskRequest> sent = ArgumentCaptor.forClass(ClickUpTaskRequest.class);
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-2"), sent.capture());
+        assertEquals(List.of("cf-1", "cf-2"), ids(sent.getValue().getCustomFields()));
+        assertEquals(2, second.getCustomFields().size(), "La petición del llamador no debe recortarse");
+        verify(mappingRepository).delete(mapping);
+    }
+
+    @Test
+    void customFieldNotFoundRepairsTheMapping() {
+        when(taskMapper.toClickUpTask(any())).thenReturn(
+                request("042-0126 Ocean Dr", "a", "b"),
+                request("042-0126 Ocean Dr", "a2", "b2"));
+        syncService.pushLeadUpdate(lead);
+
+        // Sólo cambian los dos custom fields: ClickUpService relanza el 404 aunque los escriba en paralelo
+        doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null))
+                .when(clickUpService).updateCustomFields(eq(TYPE), eq("task-1"), anyList());
+        when(clickUpService.findTaskIdByLeadNumber(TYPE, "042-0126")).thenReturn("task-2");
+        when(mappingRepository.findByLeadId(1L)).thenReturn(Optional.of(mapping), Optional.of(mapping), Optional.empty());
+        syncService.pushLeadUpdate(lead);
+
+        verify(mappingRepository).delete(mapping);
+        ArgumentCaptor<ClickUpTaskRequest> sent = ArgumentCaptor.forClass(ClickUpTaskRequest.class);
+        verify(clickUpService).updateTask(eq(TYPE), eq("task-2"), sent.capture());
+        assertEquals(List.of("cf-1", "cf-2"), ids(sent.getValue().getCustomFields()));
+    }
+
+    private static ClickUpTaskRequest request(String name, String first, String second) {
+        ClickUpTaskRequest req = new ClickUpTaskRequest();
+        req.setName(name);
+        req.setCustomFields(List.of(field("cf-1", first), field("cf-2", second)));
+        return req;
+    }
+
+    private static ClickUpTaskRequest.CustomField field(String id, String value) {
+        return new ClickUpTaskRequest.CustomField(id, value);
+    }
+
+    private static List<String> ids(List<ClickUpTaskRequest.CustomField> fields) {
+        return fields.stream().map(ClickUpTaskRequest.CustomField::getId).toList();
+    }
+}
@@ -0,0 +1,147 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.enums.LeadStatus;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.ContactsEntity;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.models.ProjectTypeEntity;
+import io.dav033.maroconstruction.repositories.ContactsRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import io.dav033.maroconstruction.repositories.ProjectTypeRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara el listado de leads por entidades (JOIN FETCH + MapStruct) con la proyección por constructor
+ * de LeadsService.getAllLeads, midiendo latencia y bytes asignados por el hilo. No forma parte del build
+ * normal:
+ *
+ *   mvn test -Dtest=LeadListProjectionBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LeadListProjectionBenchmark {
+
+    private static final int LEADS = 5_000;
+    private static final int CONTACTS = 500;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired private LeadsRepository leadsRepository;
+    @Autowired private ContactsRepository contactsRepository;
+    @Autowired private ProjectTypeRepository projectTypeRepository;
+    @Autowired private LeadsMapper leadsMapper;
+    @Autowired private LeadsService leadsService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<ProjectTypeEntity> types = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                ProjectTypeEntity type = new ProjectTypeEntity();
+                type.setName("Tipo " + i);
+                type.setColor("#00000" + i);
+                types.add(type);
+            }
+            types = projectTypeRepository.saveAll(types);
+
+            List<ContactsEntity> contacts = new ArrayList<>();
+            for (int i = 0; i < CONTACTS; i++) {
+                ContactsEntity contact = new ContactsEntity();
+                contact.setName("Contacto " + i);
+                contact.setEmail("contacto" + i + "@example.com");
+                contact.setPhone("555-" + i);
+                contact.setNotes(List.of("nota " + i));
+                contacts.add(contact);
+            }
+            contacts = contactsRepository.saveAll(contacts);
+
+            List<LeadsEntity> leads = new ArrayList<>();
+            LeadType[] leadTypes = LeadType.values();
+            for (int i = 0; i < LEADS; i++) {
+                LeadsEntity lead = new LeadsEntity();
+                lead.setLeadNumber(String.format("%03d-0126-%d", i % 1000, i));
+                lead.setName("Lead " + i);
+                lead.setStartDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+                lead.setLocation("Calle " + i);
+                lead.setStatus(LeadStatus.values()[i % LeadStatus.values().length]);
+                lead.setLeadType(leadTypes[i % leadTypes.length]);
+                lead.setNotes(List.of("primera nota", "segunda nota"));
+                lead.setContact(contacts.get(i % CONTACTS));
+                lead.setProjectType(types.get(i % types.size()));
+                leads.add(lead);
+            }
+            leadsRepository.saveAll(leads);
+        });
+    }
+
+    @Test
+    void compareEntityAndProjectionPaths() {
+        Supplier<List<Leads>> entityPath = () -> readOnly.execute(status ->
+                leadsRepository.findAll().stream().map(leadsMapper::toDto).toList());
+        Supplier<List<Leads>> projectionPath = leadsService::getAllLeads;
+
+        assertEquals(LEADS, entityPath.get().size());
+        assertEquals(LEADS, projectionPath.get().size());
+
+        Result entity = measure(entityPath);
+        Result projection = measure(projectionPath);
+
+        System.out.printf("%-12s %10s %10s %14s%n", "ruta", "p50 ms", "p99 ms", "KB/llamada");
+        print("entidades", entity);
+        print("proyeccion", projection);
+    }
+
+    private record Result(double p50Ms, double p99Ms, long bytesPerCall) {}
+
+    private static Result measure(Supplier<List<Leads>> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long[] nanos = new long[ITERATIONS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            path.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Arrays.sort(nanos);
+        return new Result(
+                nanos[ITERATIONS / 2] / 1e6,
+                nanos[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6,
+                allocated / ITERATIONS);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-12s %10.2f %10.2f %14d%n", label, result.p50Ms(), result.p99Ms(), result.bytesPerCall() / 1024);
+    }
+}
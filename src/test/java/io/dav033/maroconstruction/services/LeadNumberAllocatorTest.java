@@ -0,0 +1,197 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.dto.Leads;
+import io.dav033.maroconstruction.enums.LeadType;
+import io.dav033.maroconstruction.mappers.LeadsMapper;
+import io.dav033.maroconstruction.models.LeadsEntity;
+import io.dav033.maroconstruction.repositories.LeadNumberCounterRepository;
+import io.dav033.maroconstruction.repositories.LeadsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Contador de lead numbers sobre Postgres: el UPDATE ... RETURNING, la siembra con ON CONFLICT y la
+ * expresión regular no existen en H2, así que el esquema sale de las migraciones de Flyway.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.flyway.enabled=true"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@Import(LeadNumberAllocator.class)
+class LeadNumberAllocatorTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String MMYY = LocalDate.now().format(DateTimeFormatter.ofPattern("MMyy"));
+
+    @Autowired
+    private LeadNumberAllocator allocator;
+
+    @Autowired
+    private LeadNumberCounterRepository counterRepository;
+
+    @Autowired
+    private LeadsRepository leadsRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        // Los tests con transacciones propias no se deshacen solos
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            leadsRepository.deleteAllInBatch();
+            counterRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void incrementReturnsEmptyUntilTheRowIsSeeded() {
+        assertEquals(Optional.empty(), counterRepository.increment(LeadType.ROOFING.name()));
+
+        counterRepository.seed(LeadType.ROOFING.name(), "^(\\d{3})-\\d{4}$");
+
+        assertEquals(Optional.of(1), counterRepository.increment(LeadType.ROOFING.name()));
+        assertEquals(Optional.of(2), counterRepository.increment(LeadType.ROOFING.name()));
+    }
+
+    @Test
+    void firstAllocationContinuesAfterTheHighestExistingPrefix() {
+        lead("007-0925", LeadType.CONSTRUCTION);
+        lead("031-1025", LeadType.CONSTRUCTION);
+        lead("099 manual", LeadType.CONSTRUCTION);
+        lead("012P-1025", LeadType.PLUMBING);
+        // Con formato de otro tipo: no cuenta para construction
+        lead("200P-1025", LeadType.CONSTRUCTION);
+
+        assertEquals("032-" + MMYY, allocator.next(LeadType.CONSTRUCTION));
+        assertEquals("033-" + MMYY, allocator.next(LeadType.CONSTRUCTION));
+        assertEquals("013P-" + MMYY, allocator.next(LeadType.PLUMBING));
+        assertEquals("001-" + MMYY, allocator.next(LeadType.ROOFING));
+    }
+
+    @Test
+    void seedIsANoOpOnceTheRowExists() {
+        assertEquals("001-" + MMYY, allocator.next(LeadType.ROOFING));
+        lead("050-1025", LeadType.ROOFING);
+
+        assertEquals(0, counterRepository.seed(LeadType.ROOFING.name(), "^(\\d{3})-\\d{4}$"));
+        assertEquals("002-" + MMYY, allocator.next(LeadType.ROOFING));
+    }
+
+    @Test
+    void numbersTakenByHandAreSkipped() {
+        assertEquals("001-" + MMYY, allocator.next(LeadType.CONSTRUCTION));
+        lead("002-" + MMYY, LeadType.CONSTRUCTION);
+        lead("003-" + MMYY, LeadType.CONSTRUCTION);
+
+        assertEquals("004-" + MMYY, allocator.next(LeadType.CONSTRUCTION));
+    }
+
+    @Test
+    void observeRaisesTheCounterButNeverLowersIt() {
+        allocator.next(LeadType.PLUMBING);
+
+        allocator.observe(LeadType.PLUMBING, "040P-0126");
+        assertEquals("041P-" + MMYY, allocator.next(LeadType.PLUMBING));
+
+        allocator.observe(LeadType.PLUMBING, "010P-0126");
+        allocator.observe(LeadType.PLUMBING, "090-0126");
+        assertEquals("042P-" + MMYY, allocator.next(LeadType.PLUMBING));
+    }
+
+    @Test
+    void updateObservesTheNumberUnderTheFinalType() {
+        allocator.next(LeadType.PLUMBING);
+        LeadsEntity existing = lead("005-" + MMYY, LeadType.CONSTRUCTION);
+        LeadsService leadsService = new LeadsService(leadsRepository, null, null, null, null, null, null,
+                mock(LeadsMapper.class), mock(ClickUpOutboxService.class), allocator, em.getEntityManager());
+
+        // Número y tipo cambian en el mismo patch: el número sólo tiene formato de PLUMBING
+        Leads patch = new Leads();
+        patch.setLeadNumber("040P-" + MMYY);
+        patch.setLeadType(LeadType.PLUMBING);
+        leadsService.updateLead(existing.getId(), patch);
+
+        assertEquals("041P-" + MMYY, allocator.next(LeadType.PLUMBING));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentAllocationsNeverRepeatOrLeaveGaps() throws Exception {
+        int threads = 8;
+        int perThread = 10;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                List<String> numbers = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(tx.execute(status -> allocator.next(LeadType.CONSTRUCTION)));
+                }
+                return numbers;
+            }));
+        }
+        Set<String> allocated = new HashSet<>();
+        for (Future<List<String>> f : futures) {
+            allocated.addAll(f.get());
+        }
+        pool.shutdown();
+
+        Set<String> expected = new HashSet<>();
+        for (int n = 1; n <= threads * perThread; n++) {
+            expected.add(String.format("%03d-%s", n, MMYY));
+        }
+        assertEquals(expected, allocated);
+    }
+
+    private LeadsEntity lead(String number, LeadType type) {
+        LeadsEntity lead = new LeadsEntity();
+        lead.setLeadNumber(number);
+        lead.setName(number);
+        lead.setStartDate(LocalDate.now());
+        lead.setLeadType(type);
+        return em.persistAndFlush(lead);
+    }
+}
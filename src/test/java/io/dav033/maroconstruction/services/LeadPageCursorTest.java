@@ -0,0 +1,52 @@
+package io.dav033.maroconstruction.services;
+
+import io.dav033.maroconstruction.exceptions.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Codificación del cursor (start_date, id) del listado paginado de leads. */
+class LeadPageCursorTest {
+
+    @Test
+    void roundTripsTheKey() {
+        String cursor = LeadPageCursor.encode(LocalDate.of(2026, 1, 31), 9_007_199_254_740_993L);
+
+        assertEquals(new LeadPageCursor.Key(LocalDate.of(2026, 1, 31), 9_007_199_254_740_993L),
+                LeadPageCursor.decode(cursor));
+    }
+
+    @Test
+    void cursorIsSafeInAQueryString() {
+        for (long id = 1; id < 2_000; id += 37) {
+            String cursor = LeadPageCursor.encode(LocalDate.of(2025, 12, 1), id);
+            assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+        }
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(LeadPageCursor.decode(null));
+        assertNull(LeadPageCursor.decode(""));
+        assertNull(LeadPageCursor.decode("  "));
+    }
+
+    @Test
+    void malformedCursorsAreValidationErrors() {
+        assertThrows(ValidationException.class, () -> LeadPageCursor.decode("no es base64!"));
+        assertThrows(ValidationException.class, () -> LeadPageCursor.decode(encodeRaw("2026-01-31")));
+        assertThrows(ValidationException.class, () -> LeadPageCursor.decode(encodeRaw("ayer|5")));
+        assertThrows(ValidationException.class, () -> LeadPageCursor.decode(encodeRaw("2026-01-31|abc")));
+    }
+
+    private static String encodeRaw(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,228 @@
+package io.dav033.maroconstruction.services;
+
+import com.sun.net.httpserver.HttpServer;
+import io.dav033.maroconstruction.MaroconstructionApplication;
+import io.dav033.maroconstruction.enums.OutboxStatus;
+import io.dav033.maroconstruction.models.ProjectTypeEntity;
+import io.dav033.maroconstruction.repositories.ClickUpOutboxRepository;
+import io.dav033.maroconstruction.repositories.ProjectTypeRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Altas concurrentes de leads (POST /leads/new-contact) con sincronización a ClickUp contra un stub local
+ * que añade latencia fija a cada llamada, con spring.threads.virtual.enabled=false y =true. Mide el
+ * throughput de las peticiones, el tiempo hasta que el outbox entrega todas las tareas al stub y el pico
+ * de hilos de plataforma. El outbox usa FOR UPDATE SKIP LOCKED, así que necesita Postgres:
+ *
+ *   mvn test -Dtest=VirtualThreadLeadCreateBenchmark -Dbenchmark=true \
+ *       -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/maros_bench -Dbenchmark.db.user=... -Dbenchmark.db.pass=...
+ *
+ * Para ver el pinning durante la medición añadir -Dbenchmark.jfr=true: VirtualThreadPinningMonitor lo
+ * escribe en el log de la ejecución con hilos virtuales.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLeadCreateBenchmark {
+
+    private static final int LEADS = 1_000;
+    private static final int CLIENTS = 200;
+    private static final int OUTBOX_PARALLELISM = 32;
+    private static final long STUB_LATENCY_MS = 150;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+    private final AtomicInteger stubTasks = new AtomicInteger();
+    private final AtomicLong stubCalls = new AtomicLong();
+    private HttpServer stub;
+    private HttpClient http;
+
+    @BeforeAll
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // El stub no debe ser el cuello de botella: un hilo virtual por petición
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/", exchange -> {
+            stubCalls.incrementAndGet();
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(exchange.getRequestMethod()) && path.matches(".*/list/[^/]+/task")) {
+                stubTasks.incrementAndGet();
+            }
+            String id = "stub-" + stubCalls.get();
+            // Respuesta válida para crear tarea, buscar tareas y leer campos de una lista
+            byte[] body = ("{\"id\":\"" + id + "\",\"url\":\"http://stub/" + id + "\",\"tasks\":[],\"fields\":[]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+        http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @AfterAll
+    void stopStub() {
+        stub.stop(0);
+        http.close();
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %12s %10s %10s %14s %14s%n",
+                "modo", "altas/s", "p50 ms", "p99 ms", "sync total s", "pico hilos");
+        print("plataforma", platform);
+        print("virtual", virtual);
+    }
+
+    private record Result(double createsPerSecond, double p50Ms, double p99Ms, double syncSeconds, int peakThreads) {}
+
+    private Result run(boolean virtualThreads) throws Exception {
+        stubTasks.set(0);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        try (ConfigurableApplicationContext ctx = start(virtualThreads)) {
+            String baseUrl = "http://127.0.0.1:" + ctx.getEnvironment().getProperty("local.server.port");
+            long projectTypeId = seedProjectType(ctx);
+            String mode = virtualThreads ? "vt" : "pt";
+
+            AtomicInteger next = new AtomicInteger();
+            long[] latencies = new long[LEADS];
+            long started = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        for (int i = next.getAndIncrement(); i < LEADS; i = next.getAndIncrement()) {
+                            long t0 = System.nanoTime();
+                            HttpResponse<String> res = http.send(createRequest(baseUrl, projectTypeId, mode, i),
+                                    HttpResponse.BodyHandlers.ofString());
+                            latencies[i] = System.nanoTime() - t0;
+                            assertEquals(200, res.statusCode(), res.body());
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+            }
+            double createSeconds = (System.nanoTime() - started) / 1e9;
+
+            ClickUpOutboxRepository outbox = ctx.getBean(ClickUpOutboxRepository.class);
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (outbox.countByStatus(OutboxStatus.PENDING) + outbox.countByStatus(OutboxStatus.IN_PROGRESS) > 0) {
+                assertTrue(System.nanoTime() < deadline, "El outbox no se vació a tiempo");
+                Thread.sleep(50);
+            }
+            double syncSeconds = (System.nanoTime() - started) / 1e9;
+            assertEquals(LEADS, stubTasks.get(), "El stub no recibió todas las tareas");
+
+            Arrays.sort(latencies);
+            return new Result(
+                    LEADS / createSeconds,
+                    latencies[LEADS / 2] / 1e6,
+                    latencies[(int) Math.ceil(LEADS * 0.99) - 1] / 1e6,
+                    syncSeconds,
+                    threads.getPeakThreadCount());
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        String stubUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--diagnostics.pinning.enabled=" + Boolean.getBoolean("benchmark.jfr"),
+                "--spring.datasource.url=" + System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/maros_bench"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.db.user", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.db.pass", "postgres"),
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--clickup.api-url=" + stubUrl,
+                "--clickup.http.rate-limit-per-minute=1000000",
+                "--clickup.resilience.max-concurrent-calls=" + OUTBOX_PARALLELISM * 4,
+                "--clickup.outbox.enabled=true",
+                "--clickup.outbox.poll-interval-ms=50",
+                "--clickup.outbox.parallelism=" + OUTBOX_PARALLELISM,
+                "--clickup.outbox.batch-size=" + OUTBOX_PARALLELISM * 2));
+        for (String type : List.of("CONSTRUCTION", "PLUMBING")) {
+            String prefix = "--clickup.routes.map." + type;
+            args.add(prefix + ".list-id=bench-" + type.toLowerCase());
+            args.add(prefix + ".fields.leadNumberId=cf-lead-number");
+            args.add(prefix + ".fields.contactNameId=cf-contact-name");
+            args.add(prefix + ".fields.customerNameId=cf-customer-name");
+            args.add(prefix + ".fields.emailId=cf-email");
+            args.add(prefix + ".fields.phoneTextId=cf-phone");
+            args.add(prefix + ".fields.locationTextId=cf-location");
+        }
+        return new SpringApplicationBuilder(MaroconstructionApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private static long seedProjectType(ConfigurableApplicationContext ctx) {
+        ProjectTypeEntity type = new ProjectTypeEntity();
+        type.setName("Benchmark");
+        type.setColor("#000000");
+        return ctx.getBean(ProjectTypeRepository.class).save(type).getId();
+    }
+
+    private static HttpRequest createRequest(String baseUrl, long projectTypeId, String mode, int i) {
+        String body = """
+                {"lead":{"location":"Calle %d","leadType":"CONSTRUCTION","projectType":{"id":%d}},
+                 "contact":{"name":"Bench %s %d","email":"bench-%s-%d@example.com","phone":"555-%d"}}
+                """.formatted(i, projectTypeId, mode, i, mode, i, i);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/leads/new-contact"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-10s %12.1f %10.2f %10.2f %14.2f %14d%n", label,
+                result.createsPerSecond(), result.p50Ms(), result.p99Ms(), result.syncSeconds(), result.peakThreads());
+    }
+}